@@ -0,0 +1,79 @@
+package com.auth.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.Equipment;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.service.BorrowRequestService;
+import com.auth.service.ChangeSequenceService;
+
+/**
+ * The in-process part of approveRequest: status check, availability arithmetic
+ * and entity updates. Repositories are stubbed, so this excludes the database
+ * round-trips and isolates the service's own cost (plus stub overhead).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ApprovalBenchmark {
+
+    private BorrowRequestService service;
+
+    @Setup
+    public void setUp() {
+        Equipment eq = new Equipment();
+        eq.setId(1L);
+        eq.setTotalQuantity(100);
+        eq.setAvailableQuantity(100);
+
+        BorrowRequestRepository brRepo = mock(BorrowRequestRepository.class);
+        // approveRequest looks up the item, locks it, then re-reads the request under the lock
+        when(brRepo.findEquipmentIdById(anyLong())).thenReturn(Optional.of(1L));
+        when(brRepo.findForUpdateById(anyLong())).thenAnswer(inv -> {
+            BorrowRequest br = new BorrowRequest();
+            br.setId(inv.getArgument(0));
+            br.setEquipment(eq);
+            br.setQuantityRequested(2);
+            br.setStartDate(LocalDate.of(2025, 1, 10));
+            br.setEndDate(LocalDate.of(2025, 1, 20));
+            br.setStatus(BorrowStatus.PENDING);
+            return Optional.of(br);
+        });
+        when(brRepo.sumOverlappingQuantities(anyLong(), any(), any())).thenReturn(40);
+        when(brRepo.save(any(BorrowRequest.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        EquipmentRepository equipmentRepo = mock(EquipmentRepository.class);
+        when(equipmentRepo.findForUpdateById(1L)).thenReturn(Optional.of(eq));
+
+        service = new BorrowRequestService();
+        ReflectionTestUtils.setField(service, "brRepo", brRepo);
+        ReflectionTestUtils.setField(service, "equipmentRepo", equipmentRepo);
+        ReflectionTestUtils.setField(service, "events", (ApplicationEventPublisher) event -> { });
+        ReflectionTestUtils.setField(service, "changeSequence", mock(ChangeSequenceService.class));
+    }
+
+    @Benchmark
+    public BorrowRequest approveRequest() {
+        return service.approveRequest(42L, 7L, "ok");
+    }
+}
@@ -0,0 +1,92 @@
+package com.auth.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.Equipment;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * JSON against the binary encodings a client can ask for with Accept
+ * (CBOR, Smile) on the catalog and issued-list payloads: encode cost on the
+ * server, decode cost on the client, and payload size, which is printed once
+ * per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BinaryFormatBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private List<Equipment> equipment;
+    private List<BorrowRequest> requests;
+    private byte[] equipmentBytes;
+    private byte[] requestBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        // same settings the MVC converters use, only the factory differs
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        switch (format) {
+            case "cbor" -> builder.factory(new CBORFactory());
+            case "smile" -> builder.factory(new SmileFactory());
+            default -> { }
+        }
+        mapper = builder.build();
+        equipment = new ArrayList<>(size);
+        requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Equipment eq = JsonSerializationBenchmark.Fixtures.equipment(i);
+            equipment.add(eq);
+            requests.add(JsonSerializationBenchmark.Fixtures.borrowRequest(i, eq));
+        }
+        equipmentBytes = mapper.writeValueAsBytes(equipment);
+        requestBytes = mapper.writeValueAsBytes(requests);
+        System.out.printf("%n%d items, %s: equipment list %d bytes, borrow request list %d bytes%n",
+                size, format, equipmentBytes.length, requestBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeEquipmentList() throws IOException {
+        return mapper.writeValueAsBytes(equipment);
+    }
+
+    @Benchmark
+    public byte[] encodeBorrowRequestList() throws IOException {
+        return mapper.writeValueAsBytes(requests);
+    }
+
+    @Benchmark
+    public List<Equipment> decodeEquipmentList() throws IOException {
+        return mapper.readValue(equipmentBytes, new TypeReference<List<Equipment>>() {});
+    }
+
+    @Benchmark
+    public List<BorrowRequest> decodeBorrowRequestList() throws IOException {
+        return mapper.readValue(requestBytes, new TypeReference<List<BorrowRequest>>() {});
+    }
+}
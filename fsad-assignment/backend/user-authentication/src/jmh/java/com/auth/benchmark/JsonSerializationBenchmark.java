@@ -0,0 +1,158 @@
+package com.auth.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.Equipment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Response serialization of the listing endpoints (/api/equipment and the
+ * /api/borrow lists), where every BorrowRequest embeds its Equipment.
+ * <p>
+ * Written the way MVC writes a response: streamed into the output, gzipped
+ * or not, with reflective or Blackbird-generated accessors. Time per op is the
+ * CPU cost of one response; the bytes that went on the wire per response are
+ * printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    @Param({"reflection", "blackbird"})
+    public String accessors;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    private ObjectMapper mapper;
+    private final CountingSink wire = new CountingSink();
+    private List<Equipment> equipment;
+    private List<BorrowRequest> requests;
+
+    @Setup
+    public void setUp() {
+        // same defaults Spring Boot applies to the MVC ObjectMapper
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        if (accessors.equals("blackbird")) {
+            mapper.registerModule(new BlackbirdModule());
+        }
+        equipment = new ArrayList<>(size);
+        requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Equipment eq = Fixtures.equipment(i);
+            equipment.add(eq);
+            requests.add(Fixtures.borrowRequest(i, eq));
+        }
+    }
+
+    @Benchmark
+    public long equipmentList() throws IOException {
+        return write(equipment);
+    }
+
+    @Benchmark
+    public long borrowRequestList() throws IOException {
+        return write(requests);
+    }
+
+    @TearDown
+    public void report() {
+        if (wire.responses > 0) {
+            System.out.printf("%n%d items, %s, %s: %d bytes on the wire per response%n",
+                    size, accessors, encoding, wire.bytes / wire.responses);
+        }
+    }
+
+    private long write(Object body) throws IOException {
+        long before = wire.bytes;
+        if (encoding.equals("gzip")) {
+            try (GZIPOutputStream gz = new GZIPOutputStream(wire)) {
+                mapper.writeValue(gz, body);
+            }
+        } else {
+            mapper.writeValue(wire, body);
+        }
+        wire.responses++;
+        return wire.bytes - before;
+    }
+
+    // stands in for the socket: counts what would be sent, keeps nothing
+    private static final class CountingSink extends OutputStream {
+        long bytes;
+        long responses;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+
+        @Override
+        public void close() {
+            // the benchmark keeps writing to it
+        }
+    }
+
+    static final class Fixtures {
+
+        static Equipment equipment(int i) {
+            Equipment eq = new Equipment();
+            eq.setId((long) i);
+            eq.setName("Oscilloscope " + i);
+            eq.setCategory("Electronics");
+            eq.setConditionDescription("Good");
+            eq.setDescription("Two-channel 100 MHz digital storage oscilloscope with probes");
+            eq.setTotalQuantity(10);
+            eq.setAvailableQuantity(7);
+            eq.setCreatedAt(Instant.parse("2025-01-01T09:00:00Z"));
+            return eq;
+        }
+
+        static BorrowRequest borrowRequest(int i, Equipment eq) {
+            BorrowRequest br = new BorrowRequest();
+            br.setId((long) i);
+            br.setUserId((long) (i % 50));
+            br.setEquipment(eq);
+            br.setQuantityRequested(1);
+            br.setStartDate(LocalDate.of(2025, 3, 1));
+            br.setEndDate(LocalDate.of(2025, 3, 14));
+            br.setStatus(BorrowStatus.APPROVED);
+            br.setCreatedAt(Instant.parse("2025-02-20T10:15:00Z"));
+            br.setUpdatedAt(Instant.parse("2025-02-21T08:00:00Z"));
+            br.setAdminComment("ok");
+            return br;
+        }
+    }
+}
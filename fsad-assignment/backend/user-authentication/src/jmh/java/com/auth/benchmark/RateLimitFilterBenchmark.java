@@ -0,0 +1,59 @@
+package com.auth.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.auth.security.RateLimitFilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Overhead the admission filter adds to every request. Limits are set high
+ * enough that every call is admitted, so this measures the bucket lookup and
+ * CAS, not the rejection path. Four threads share the bucket map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class RateLimitFilterBenchmark {
+
+    private RateLimitFilter filter;
+
+    @State(Scope.Thread)
+    public static class Client {
+        MockHttpServletRequest request;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            request = new MockHttpServletRequest("GET", "/api/equipment");
+            request.setRemoteAddr("10.0." + (Thread.currentThread().getId() % 250) + ".1");
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        filter = new RateLimitFilter(true, false, 100_000,
+                1e9, 1_000_000, 1e9, 1_000_000, 1e9, 1_000_000, 1e9, 1_000_000,
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void admit(Client client) throws Exception {
+        // OncePerRequestFilter marks the request as filtered; clear it each time
+        client.request.clearAttributes();
+        filter.doFilter(client.request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
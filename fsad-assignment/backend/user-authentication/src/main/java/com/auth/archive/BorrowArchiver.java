@@ -0,0 +1,129 @@
+package com.auth.archive;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.Period;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auth.cluster.LeaseService;
+import com.auth.entity.BorrowStatus;
+import com.auth.repository.ArchivedBorrowRequestRepository;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.tenant.TenantDatabases;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Moves closed borrow requests (returned, rejected, cancelled) older than the
+ * horizon from borrow_request to borrow_request_archive, so the live table
+ * and its indexes track open loans rather than all history. Works in small
+ * chunks, each its own short transaction, with a pause in between so the
+ * primary and the replicas keep up; a run stops after max-chunks-per-run and
+ * the next night continues.
+ */
+@Component
+public class BorrowArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowArchiver.class);
+
+    static final List<BorrowStatus> CLOSED = List.of(BorrowStatus.RETURNED, BorrowStatus.REJECTED, BorrowStatus.CANCELLED);
+
+    private final BorrowRequestRepository brRepo;
+    private final ArchivedBorrowRequestRepository archiveRepo;
+    private final LeaseService leases;
+    private final TenantDatabases databases;
+    private final TransactionTemplate tx;
+    private final Counter moved;
+    private final Timer chunkTimer;
+
+    @Value("${archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${archive.horizon:P90D}")
+    private Period horizon;
+
+    @Value("${archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${archive.pause-between-chunks:200ms}")
+    private Duration pause;
+
+    @Value("${archive.max-chunks-per-run:2000}")
+    private int maxChunks;
+
+    public BorrowArchiver(BorrowRequestRepository brRepo, ArchivedBorrowRequestRepository archiveRepo,
+                          LeaseService leases, TenantDatabases databases, PlatformTransactionManager txManager,
+                          MeterRegistry registry) {
+        this.brRepo = brRepo;
+        this.archiveRepo = archiveRepo;
+        this.leases = leases;
+        this.databases = databases;
+        this.tx = new TransactionTemplate(txManager);
+        this.moved = Counter.builder("archive.rows.moved").register(registry);
+        this.chunkTimer = Timer.builder("archive.chunk").register(registry);
+    }
+
+    @Scheduled(cron = "${archive.cron:0 15 2 * * *}") // nightly, on one node
+    public void archiveClosedRequests() {
+        if (!enabled || !leases.tryAcquire("borrow-archive", Duration.ofHours(6))) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(horizon);
+        // all tenants of a database in one pass
+        databases.forEach(database -> {
+            int total = archive(cutoff);
+            log.info("Archived {} closed borrow requests in database {}", total, database);
+        });
+    }
+
+    /** Archives closed rows last changed before {@code cutoff}; returns how many moved. */
+    public int archive(Instant cutoff) {
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            // the ids are re-read inside the transaction that moves them: a row reopened meanwhile is skipped
+            Integer n = chunkTimer.record(() -> tx.execute(status -> moveChunk(cutoff)));
+            if (n == null || n == 0) {
+                break;
+            }
+            total += n;
+            moved.increment(n);
+            if (!sleep()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int moveChunk(Instant cutoff) {
+        List<Long> ids = brRepo.findArchivableIds(CLOSED, cutoff, Limit.of(chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archiveRepo.copyFromLive(ids, Instant.now());
+        return brRepo.deleteByIds(ids);
+    }
+
+    private boolean sleep() {
+        if (pause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
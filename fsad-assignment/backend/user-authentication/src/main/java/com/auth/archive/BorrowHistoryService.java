@@ -0,0 +1,113 @@
+package com.auth.archive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.auth.dto.LoanExportRow;
+import com.auth.entity.ArchivedBorrowRequest;
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.Equipment;
+import com.auth.repository.ArchivedBorrowRequestRepository;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+
+/**
+ * Reads that span live and archived borrow requests. Only used when a caller
+ * asks for archived data; the default paths never touch the archive table.
+ */
+@Service
+public class BorrowHistoryService {
+
+    private final BorrowRequestRepository brRepo;
+    private final ArchivedBorrowRequestRepository archiveRepo;
+    private final EquipmentRepository equipmentRepo;
+    private final int exportPageSize;
+
+    public BorrowHistoryService(BorrowRequestRepository brRepo, ArchivedBorrowRequestRepository archiveRepo,
+                                EquipmentRepository equipmentRepo,
+                                @Value("${archive.export-page-size:1000}") int exportPageSize) {
+        this.brRepo = brRepo;
+        this.archiveRepo = archiveRepo;
+        this.equipmentRepo = equipmentRepo;
+        this.exportPageSize = exportPageSize;
+    }
+
+    /** Live requests of the user followed by archived ones, with the equipment they refer to (null if deleted). */
+    @Transactional(readOnly = true)
+    public List<BorrowRequest> getRequestsByUser(Long userId) {
+        List<BorrowRequest> all = new ArrayList<>(brRepo.findByUserId(userId));
+        List<ArchivedBorrowRequest> archived = archiveRepo.findByUserId(userId);
+        if (archived.isEmpty()) {
+            return all;
+        }
+        Set<Long> ids = archived.stream().map(ArchivedBorrowRequest::getEquipmentId).collect(Collectors.toSet());
+        Map<Long, Equipment> equipment = equipmentRepo.findAllById(ids).stream()
+                .collect(Collectors.toMap(Equipment::getId, Function.identity()));
+        archived.forEach(a -> all.add(a.toBorrowRequest(equipment.get(a.getEquipmentId()))));
+        return all;
+    }
+
+    /**
+     * Writes requests overlapping [from, to] as CSV, page by page (keyset on
+     * id), so memory stays flat however much history there is.
+     */
+    public void exportCsv(LocalDate from, LocalDate to, boolean includeArchived, OutputStream out) throws IOException {
+        Map<Long, String> names = equipmentRepo.findAll().stream()
+                .collect(Collectors.toMap(Equipment::getId, e -> e.getName() == null ? "" : e.getName()));
+        Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        w.write("id,user_id,equipment_id,equipment_name,quantity,start_date,end_date,status,created_at,updated_at,overdue,archived\n");
+
+        long after = 0;
+        List<LoanExportRow> page;
+        do {
+            page = brRepo.findForExport(from, to, after, Limit.of(exportPageSize));
+            after = write(page, names, w, after);
+        } while (page.size() == exportPageSize);
+
+        if (includeArchived) {
+            after = 0;
+            do {
+                page = archiveRepo.findForExport(from, to, after, Limit.of(exportPageSize));
+                after = write(page, names, w, after);
+            } while (page.size() == exportPageSize);
+        }
+        w.flush();
+    }
+
+    private static long write(List<LoanExportRow> rows, Map<Long, String> names, Writer w, long after) throws IOException {
+        for (LoanExportRow r : rows) {
+            w.write(r.id() + "," + r.userId() + "," + r.equipmentId() + "," + csv(names.getOrDefault(r.equipmentId(), ""))
+                    + "," + r.quantity() + "," + r.startDate() + "," + r.endDate() + "," + r.status()
+                    + "," + nullToEmpty(r.createdAt()) + "," + nullToEmpty(r.updatedAt())
+                    + "," + r.overdue() + "," + r.archived() + "\n");
+            after = r.id();
+        }
+        return after;
+    }
+
+    private static String nullToEmpty(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,112 @@
+package com.auth.attachment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.auth.entity.EquipmentAttachment;
+import com.auth.repository.EquipmentAttachmentRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.tenant.TenantDatabases;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Photos and manuals of equipment items. Uploads are streamed straight to
+ * the store (never held in memory), downloads are served from the file by
+ * {@link FileResponses}, and images get their thumbnail in the background.
+ */
+@Service
+public class AttachmentService {
+    @Autowired private EquipmentAttachmentRepository attachmentRepo;
+    @Autowired private EquipmentRepository equipmentRepo;
+    @Autowired private AttachmentStore store;
+    @Autowired private ThumbnailGenerator thumbnails;
+    @Autowired private TenantDatabases databases;
+
+    @Value("${attachments.cache-max-age:365d}")
+    private Duration cacheMaxAge;
+
+    // no transaction around the upload: a slow client must not hold a connection
+    public EquipmentAttachment upload(Long equipmentId, String filename, String contentType, InputStream content) {
+        if (!equipmentRepo.existsById(equipmentId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Equipment not found with id: " + equipmentId);
+        }
+        if (filename == null || filename.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A filename is required");
+        }
+        AttachmentStore.Stored stored;
+        try {
+            stored = store.store(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store attachment", e);
+        }
+        EquipmentAttachment a = new EquipmentAttachment();
+        a.setEquipmentId(equipmentId);
+        a.setFilename(filename.substring(Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\')) + 1));
+        a.setContentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        a.setSize(stored.size());
+        a.setSha256(stored.sha256());
+        EquipmentAttachment saved = attachmentRepo.save(a);
+        if (saved.getContentType().startsWith("image/")) {
+            thumbnails.submit(saved.getSha256());
+        }
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public List<EquipmentAttachment> list(Long equipmentId) {
+        return attachmentRepo.findByEquipmentIdOrderById(equipmentId);
+    }
+
+    // the row is read first and the connection released before the file is sent
+    public void download(Long equipmentId, Long attachmentId, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        EquipmentAttachment a = get(equipmentId, attachmentId);
+        FileResponses.serve(store.path(a.getSha256()), a.getSha256(), a.getContentType(), a.getFilename(),
+                cacheMaxAge, request, response);
+    }
+
+    public void downloadThumbnail(Long equipmentId, Long attachmentId, HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        EquipmentAttachment a = get(equipmentId, attachmentId);
+        if (a.getThumbnailSha256() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No thumbnail yet");
+        }
+        FileResponses.serve(store.path(a.getThumbnailSha256()), a.getThumbnailSha256(), MediaType.IMAGE_PNG_VALUE,
+                "thumbnail.png", cacheMaxAge, request, response);
+    }
+
+    // the file goes only when no other row, of any tenant, still points at the same bytes;
+    // not one transaction, as that check looks in every tenant database
+    public void delete(Long equipmentId, Long attachmentId) {
+        EquipmentAttachment a = get(equipmentId, attachmentId);
+        attachmentRepo.delete(a);
+        try {
+            if (!databases.anyMatch(() -> attachmentRepo.existsBySha256(a.getSha256()))) {
+                store.delete(a.getSha256());
+                if (a.getThumbnailSha256() != null) {
+                    store.delete(a.getThumbnailSha256());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private EquipmentAttachment get(Long equipmentId, Long attachmentId) {
+        return attachmentRepo.findByIdAndEquipmentId(attachmentId, equipmentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Attachment not found"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.auth.attachment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Content-addressed file store: a file lives at {@code ab/cd/<sha256>} under
+ * the root, so identical uploads are stored once and a stored file never
+ * changes. Uploads are copied through a fixed 64 KB buffer into a temp file
+ * while being hashed, then renamed into place.
+ */
+@Component
+public class AttachmentStore {
+
+    /** Hash and length of stored content. */
+    public record Stored(String sha256, long size) {}
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path tmp;
+    private final long maxBytes;
+
+    public AttachmentStore(@Value("${attachments.dir:data/attachments}") Path root,
+                           @Value("${attachments.max-size:100MB}") DataSize maxSize) throws IOException {
+        this.root = root.toAbsolutePath();
+        this.tmp = Files.createDirectories(this.root.resolve("tmp"));
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    public Stored store(InputStream in) throws IOException {
+        Path part = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            MessageDigest sha = sha256();
+            long size = 0;
+            byte[] buf = new byte[64 * 1024];
+            try (OutputStream out = Files.newOutputStream(part)) {
+                int n;
+                while ((n = in.read(buf)) > 0) {
+                    size += n;
+                    if (size > maxBytes) {
+                        throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Attachment exceeds " + maxBytes + " bytes");
+                    }
+                    sha.update(buf, 0, n);
+                    out.write(buf, 0, n);
+                }
+            }
+            String hash = HexFormat.of().formatHex(sha.digest());
+            Path target = path(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // same content stored concurrently
+                }
+            }
+            return new Stored(hash, size);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    public Path path(String sha256) {
+        if (sha256 == null || !SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    public void delete(String sha256) throws IOException {
+        Files.deleteIfExists(path(sha256));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
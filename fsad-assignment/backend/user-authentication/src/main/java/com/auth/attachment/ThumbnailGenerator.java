@@ -0,0 +1,138 @@
+package com.auth.attachment;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.auth.entity.EquipmentAttachment;
+import com.auth.repository.EquipmentAttachmentRepository;
+import com.auth.tenant.TenantContext;
+import com.auth.tenant.TenantDatabases;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Makes image thumbnails off the request path, on a small pool so a burst of
+ * uploads cannot take CPU from requests. Large images are decoded with source
+ * subsampling, so memory is bounded by the thumbnail size rather than the
+ * photo's resolution. Thumbnails are stored like any other content and are
+ * shared by every row with the same source bytes.
+ */
+@Component
+public class ThumbnailGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailGenerator.class);
+
+    private final AttachmentStore store;
+    private final EquipmentAttachmentRepository attachmentRepo;
+    private final TenantDatabases databases;
+    private final int size;
+    private final ExecutorService workers;
+
+    public ThumbnailGenerator(AttachmentStore store, EquipmentAttachmentRepository attachmentRepo,
+                              TenantDatabases databases,
+                              @Value("${attachments.thumbnail-size:256}") int size,
+                              @Value("${attachments.thumbnail-threads:2}") int threads) {
+        this.store = store;
+        this.attachmentRepo = attachmentRepo;
+        this.databases = databases;
+        this.size = size;
+        this.workers = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("thumbnails-", 0).daemon().factory());
+    }
+
+    public void submit(String sha256) {
+        workers.execute(TenantContext.wrap(() -> generate(sha256)));
+    }
+
+    // images whose thumbnail was lost to a restart
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        databases.forEach(database -> attachmentRepo.findByThumbnailSha256IsNullAndContentTypeStartingWith("image/").stream()
+                .map(EquipmentAttachment::getSha256)
+                .distinct()
+                .forEach(this::submit));
+    }
+
+    void generate(String sha256) {
+        try {
+            var existing = attachmentRepo.findFirstBySha256AndThumbnailSha256IsNotNull(sha256);
+            if (existing.isPresent()) {
+                attachmentRepo.setThumbnail(sha256, existing.get().getThumbnailSha256());
+                return;
+            }
+            BufferedImage image = read(store.path(sha256));
+            if (image == null) {
+                return; // not a format ImageIO can decode
+            }
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(scale(image), "png", png);
+            String thumb = store.store(new ByteArrayInputStream(png.toByteArray())).sha256();
+            attachmentRepo.setThumbnail(sha256, thumb);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Thumbnail for {} failed", sha256, e);
+        }
+    }
+
+    private BufferedImage read(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                // decode every n-th pixel, keeping at least twice the target for a clean downscale
+                int step = Math.max(1, longest / (size * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage image) {
+        double factor = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int w = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int h = Math.max(1, (int) Math.round(image.getHeight() * factor));
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,55 @@
+package com.auth.bulkhead;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Concurrency limit for one compartment. A request waits at most
+ * {@code maxWait} for a permit and is rejected after that, so a saturated
+ * compartment sheds load instead of queueing without bound.
+ */
+public class Bulkhead {
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public Bulkhead(Compartment compartment, int maxConcurrent, Duration maxWait, MeterRegistry registry) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxWaitNanos = maxWait.toNanos();
+        String tag = compartment.tag();
+        this.waitTimer = Timer.builder("bulkhead.wait").tag("compartment", tag).register(registry);
+        this.rejected = Counter.builder("bulkhead.rejected").tag("compartment", tag).register(registry);
+        Gauge.builder("bulkhead.active", permits, p -> maxConcurrent - p.availablePermits())
+                .tag("compartment", tag).register(registry);
+        Gauge.builder("bulkhead.max", () -> maxConcurrent).tag("compartment", tag).register(registry);
+        Gauge.builder("bulkhead.queued", permits, Semaphore::getQueueLength)
+                .tag("compartment", tag).register(registry);
+    }
+
+    /** True if a permit was taken; the caller must then call {@link #exit()}. */
+    public boolean tryEnter() throws InterruptedException {
+        long t0 = System.nanoTime();
+        boolean acquired = permits.tryAcquire() || permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        waitTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+        }
+        return acquired;
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    int available() {
+        return permits.availablePermits();
+    }
+}
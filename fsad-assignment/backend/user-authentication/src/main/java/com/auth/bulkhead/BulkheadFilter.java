@@ -0,0 +1,107 @@
+package com.auth.bulkhead;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.auth.security.CustomUserDetails;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Puts every request into a compartment by the caller's role and takes a
+ * permit from that compartment's bulkhead for the duration of the request.
+ * Staff and admin operations have their own permits and their own connection
+ * pool (see ReadWriteRoutingDataSource), so a flood of student traffic fills
+ * the student compartments and gets 503s while staff requests go through.
+ */
+@Component
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final Map<Compartment, Bulkhead> bulkheads = new EnumMap<>(Compartment.class);
+
+    public BulkheadFilter(@Value("${bulkhead.enabled:true}") boolean enabled,
+                          @Value("${bulkhead.max-wait:100ms}") Duration maxWait,
+                          @Value("${bulkhead.auth.max-concurrent:50}") int auth,
+                          @Value("${bulkhead.student-read.max-concurrent:200}") int studentRead,
+                          @Value("${bulkhead.student-write.max-concurrent:50}") int studentWrite,
+                          @Value("${bulkhead.staff.max-concurrent:50}") int staff,
+                          MeterRegistry registry) {
+        this.enabled = enabled;
+        bulkheads.put(Compartment.AUTH, new Bulkhead(Compartment.AUTH, auth, maxWait, registry));
+        bulkheads.put(Compartment.STUDENT_READ, new Bulkhead(Compartment.STUDENT_READ, studentRead, maxWait, registry));
+        bulkheads.put(Compartment.STUDENT_WRITE, new Bulkhead(Compartment.STUDENT_WRITE, studentWrite, maxWait, registry));
+        bulkheads.put(Compartment.STAFF, new Bulkhead(Compartment.STAFF, staff, maxWait, registry));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // probes and scrapes must never be shed
+        return !enabled || "OPTIONS".equals(request.getMethod()) || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        Compartment compartment = classify(request);
+        Bulkhead bulkhead = bulkheads.get(compartment);
+
+        boolean entered;
+        try {
+            entered = bulkhead.tryEnter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+        if (!entered) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType("text/plain");
+            response.getWriter().write("Server busy, retry shortly");
+            return;
+        }
+
+        // async requests (login, signup) release here, when the servlet thread returns;
+        // their BCrypt work is bounded separately by PasswordHashingService
+        Compartment.enter(compartment);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Compartment.leave();
+            bulkhead.exit();
+        }
+    }
+
+    static Compartment classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.startsWith("/api/users/login") || path.startsWith("/api/users/signup")
+                || path.startsWith("/api/users/refresh") || path.startsWith("/api/users/logout")) {
+            return Compartment.AUTH;
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof CustomUserDetails) {
+            boolean privileged = auth.getAuthorities().stream()
+                    .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN") || a.getAuthority().equals("ROLE_STAFF"));
+            if (privileged) {
+                return Compartment.STAFF;
+            }
+        }
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) ? Compartment.STUDENT_READ : Compartment.STUDENT_WRITE;
+    }
+}
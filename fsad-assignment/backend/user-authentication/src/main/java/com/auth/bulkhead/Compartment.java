@@ -0,0 +1,37 @@
+package com.auth.bulkhead;
+
+/**
+ * Traffic classes that get their own concurrency limit, so one class cannot
+ * use up threads and connections another one needs.
+ */
+public enum Compartment {
+    AUTH("auth"),
+    STUDENT_READ("student-read"),
+    STUDENT_WRITE("student-write"),
+    STAFF("staff");
+
+    private static final ThreadLocal<Compartment> CURRENT = new ThreadLocal<>();
+
+    private final String tag;
+
+    Compartment(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    /** Compartment of the request being served on this thread, or null outside a request. */
+    public static Compartment current() {
+        return CURRENT.get();
+    }
+
+    static void enter(Compartment compartment) {
+        CURRENT.set(compartment);
+    }
+
+    static void leave() {
+        CURRENT.remove();
+    }
+}
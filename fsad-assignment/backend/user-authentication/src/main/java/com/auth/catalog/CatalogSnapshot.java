@@ -0,0 +1,202 @@
+package com.auth.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auth.dto.ReservedLoan;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.Equipment;
+import com.auth.event.CatalogChangedEvent;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.tenant.TenantContext;
+import com.auth.tenant.TenantDatabases;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Immutable in-memory copy of the catalog and of the reservations that count
+ * against availability, with the JSON for list and item responses rendered
+ * once per rebuild (a large list also gzipped once, not per response).
+ * Rebuilt shortly after any committed catalog change and at least every
+ * max-age, so readers never touch the database.
+ * <p>
+ * One copy per tenant. The default tenant's is built at startup; another
+ * tenant's on the first request for it, which gets an empty catalog until the
+ * scheduler has built it (readers are event-loop threads and never wait).
+ * Unknown tenants get the empty catalog and no copy of their own.
+ */
+@Component
+public class CatalogSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshot.class);
+
+    /** One consistent view; swapped atomically on rebuild. listGzip is null below the size threshold. */
+    record View(byte[] listJson,
+                byte[] listGzip,
+                Map<Long, byte[]> itemJson,
+                Map<Long, Equipment> items,
+                Map<Long, List<ReservedLoan>> reservations,
+                Instant builtAt) {}
+
+    private static final class TenantView {
+        volatile View view;
+        final AtomicBoolean stale = new AtomicBoolean(true);
+    }
+
+    private final EquipmentRepository equipmentRepo;
+    private final BorrowRequestRepository brRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+    private final TenantDatabases databases;
+    private final long maxAgeMillis;
+    private final int gzipMinBytes;
+    private static final View EMPTY = new View("[]".getBytes(), null, Map.of(), Map.of(), Map.of(), Instant.EPOCH);
+
+    private final Map<String, TenantView> views = new ConcurrentHashMap<>();
+
+    public CatalogSnapshot(EquipmentRepository equipmentRepo, BorrowRequestRepository brRepo,
+                           ObjectMapper objectMapper, PlatformTransactionManager txManager,
+                           TenantDatabases databases,
+                           @Value("${catalog.snapshot.max-age-ms:10000}") long maxAgeMillis,
+                           @Value("${catalog.snapshot.gzip-min-bytes:2048}") int gzipMinBytes) {
+        this.equipmentRepo = equipmentRepo;
+        this.brRepo = brRepo;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.databases = databases;
+        this.maxAgeMillis = maxAgeMillis;
+        this.gzipMinBytes = gzipMinBytes;
+        views.put(TenantContext.DEFAULT_TENANT, new TenantView());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        String tenant = TenantContext.tenantId();
+        if (tenant == null) {
+            views.values().forEach(v -> v.stale.set(true)); // a background job, tenant unknown
+        } else {
+            TenantView v = views.get(tenant);
+            if (v != null) {
+                v.stale.set(true);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.snapshot.refresh-check-ms:500}")
+    public void refreshIfNeeded() {
+        Instant oldest = Instant.now().minusMillis(maxAgeMillis);
+        views.forEach((tenant, v) -> {
+            View current = v.view;
+            if (v.stale.get() || current == null || current.builtAt().isBefore(oldest)) {
+                refresh(tenant, v);
+            }
+        });
+    }
+
+    public void refresh() {
+        views.forEach(this::refresh);
+    }
+
+    private void refresh(String tenant, TenantView v) {
+        v.stale.set(false); // changes committed while rebuilding mark it stale again
+        try {
+            v.view = TenantContext.call(databases.scopeOf(tenant), () -> readOnlyTx.execute(status -> build()));
+        } catch (RuntimeException e) {
+            v.stale.set(true);
+            log.warn("Catalog snapshot rebuild for tenant {} failed, serving the previous one: {}", tenant, e.toString());
+        }
+    }
+
+    // called on event-loop threads: never builds, the scheduler does that
+    View current(String tenant) {
+        if (!databases.isKnown(tenant)) {
+            return EMPTY;
+        }
+        View v = views.computeIfAbsent(tenant, t -> new TenantView()).view;
+        return v == null ? EMPTY : v;
+    }
+
+    /** Units of the item not held by approved/issued requests overlapping [start, end]; null if unknown id. */
+    Integer available(String tenant, Long equipmentId, LocalDate start, LocalDate end) {
+        View v = current(tenant);
+        Equipment e = v.items().get(equipmentId);
+        if (e == null) {
+            return null;
+        }
+        int reserved = 0;
+        for (ReservedLoan loan : v.reservations().getOrDefault(equipmentId, List.of())) {
+            // same overlap rule as BorrowRequestRepository.sumOverlappingQuantities
+            if (!(loan.endDate().isBefore(start) || loan.startDate().isAfter(end))) {
+                reserved += loan.quantity();
+            }
+        }
+        int total = e.getTotalQuantity() == null ? 0 : e.getTotalQuantity();
+        return Math.max(0, total - reserved);
+    }
+
+    private View build() {
+        List<Equipment> all = equipmentRepo.findAll();
+        Map<Long, Equipment> items = new HashMap<>();
+        Map<Long, byte[]> itemJson = new HashMap<>();
+        // the list is the items' JSON joined into an array, not a second serialization of every item
+        ByteArrayOutputStream list = new ByteArrayOutputStream();
+        list.write('[');
+        for (Equipment e : all) {
+            byte[] json = toJson(e);
+            items.put(e.getId(), e);
+            itemJson.put(e.getId(), json);
+            if (list.size() > 1) {
+                list.write(',');
+            }
+            list.writeBytes(json);
+        }
+        list.write(']');
+        byte[] listJson = list.toByteArray();
+        Map<Long, List<ReservedLoan>> reservations = new HashMap<>();
+        for (ReservedLoan loan : brRepo.findReservations(List.of(BorrowStatus.APPROVED, BorrowStatus.ISSUED), LocalDate.now())) {
+            reservations.computeIfAbsent(loan.equipmentId(), k -> new ArrayList<>()).add(loan);
+        }
+        byte[] listGzip = listJson.length >= gzipMinBytes ? gzip(listJson) : null;
+        return new View(listJson, listGzip, Map.copyOf(itemJson), Map.copyOf(items), Map.copyOf(reservations),
+                Instant.now());
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.auth.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.auth.service.JwtService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Non-blocking read API for the catalog on its own port, next to the MVC
+ * stack that keeps all writes. Requests are answered on a small, fixed set of
+ * Netty event-loop threads straight from {@link CatalogSnapshot}: the JWT is
+ * verified (signature and expiry only, no user lookup), its tenant picks the
+ * snapshot, and no request ever waits on JDBC. A large list goes out gzipped
+ * to clients that accept it, compressed once per snapshot rather than per
+ * response.
+ *
+ * <ul>
+ *   <li>GET /api/catalog/equipment</li>
+ *   <li>GET /api/catalog/equipment/{id}</li>
+ *   <li>GET /api/catalog/equipment/{id}/availability?start=yyyy-MM-dd&amp;end=yyyy-MM-dd</li>
+ * </ul>
+ */
+@Component
+public class ReactiveCatalogServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCatalogServer.class);
+
+    private final CatalogSnapshot snapshot;
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final int port;
+    private final int eventLoopThreads;
+    private final String allowedOrigin;
+
+    private volatile LoopResources loops;
+    private volatile DisposableServer server;
+
+    public ReactiveCatalogServer(CatalogSnapshot snapshot, JwtService jwtService, ObjectMapper objectMapper,
+                                 MeterRegistry registry,
+                                 @Value("${catalog.reactive.enabled:true}") boolean enabled,
+                                 @Value("${catalog.reactive.port:8081}") int port,
+                                 @Value("${catalog.reactive.event-loop-threads:2}") int eventLoopThreads,
+                                 @Value("${catalog.reactive.allowed-origin:http://localhost:3000}") String allowedOrigin) {
+        this.snapshot = snapshot;
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        this.enabled = enabled;
+        this.port = port;
+        this.eventLoopThreads = eventLoopThreads;
+        this.allowedOrigin = allowedOrigin;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        snapshot.refresh(); // never serve an empty catalog
+        loops = LoopResources.create("catalog", 1, eventLoopThreads, true);
+        server = HttpServer.create()
+                .port(port)
+                .runOn(loops)
+                .route(routes -> routes
+                        .route(req -> req.method() == HttpMethod.OPTIONS, this::preflight)
+                        .get("/api/catalog/equipment", this::list)
+                        .get("/api/catalog/equipment/{id}", this::item)
+                        .get("/api/catalog/equipment/{id}/availability", this::availability))
+                .bindNow();
+        log.info("Reactive catalog API listening on port {} with {} event-loop threads", server.port(), eventLoopThreads);
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+        if (loops != null) {
+            loops.disposeLater().block();
+            loops = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /** Bound port, or -1 when not running; useful with catalog.reactive.port=0. */
+    public int port() {
+        DisposableServer s = server;
+        return s == null ? -1 : s.port();
+    }
+
+    // ---- handlers -----------------------------------------------------------
+
+    private Publisher<Void> list(HttpServerRequest req, HttpServerResponse res) {
+        String tenant = tenant(req);
+        if (tenant == null) {
+            return error(res, "list", HttpResponseStatus.UNAUTHORIZED);
+        }
+        CatalogSnapshot.View view = snapshot.current(tenant);
+        byte[] body = view.listJson();
+        if (view.listGzip() != null && acceptsGzip(req)) {
+            body = view.listGzip();
+            res.header(HttpHeaderNames.CONTENT_ENCODING, "gzip");
+        }
+        // the encoding depends on the list's size, so caches must key on Accept-Encoding either way
+        return json(res.addHeader("Vary", "Accept-Encoding"), "list", body);
+    }
+
+    private Publisher<Void> item(HttpServerRequest req, HttpServerResponse res) {
+        String tenant = tenant(req);
+        if (tenant == null) {
+            return error(res, "item", HttpResponseStatus.UNAUTHORIZED);
+        }
+        Long id = parseId(req.param("id"));
+        byte[] body = id == null ? null : snapshot.current(tenant).itemJson().get(id);
+        return body == null ? error(res, "item", HttpResponseStatus.NOT_FOUND) : json(res, "item", body);
+    }
+
+    private Publisher<Void> availability(HttpServerRequest req, HttpServerResponse res) {
+        String tenant = tenant(req);
+        if (tenant == null) {
+            return error(res, "availability", HttpResponseStatus.UNAUTHORIZED);
+        }
+        Long id = parseId(req.param("id"));
+        Map<String, List<String>> query = new QueryStringDecoder(req.uri()).parameters();
+        LocalDate start;
+        LocalDate end;
+        try {
+            start = LocalDate.parse(first(query, "start", LocalDate.now().toString()));
+            end = LocalDate.parse(first(query, "end", start.toString()));
+        } catch (DateTimeParseException e) {
+            return error(res, "availability", HttpResponseStatus.BAD_REQUEST);
+        }
+        if (id == null || start.isAfter(end)) {
+            return error(res, "availability", HttpResponseStatus.BAD_REQUEST);
+        }
+        Integer available = snapshot.available(tenant, id, start, end);
+        if (available == null) {
+            return error(res, "availability", HttpResponseStatus.NOT_FOUND);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("equipmentId", id);
+        body.put("startDate", start.toString());
+        body.put("endDate", end.toString());
+        body.put("available", available);
+        try {
+            return json(res, "availability", objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            return error(res, "availability", HttpResponseStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private Publisher<Void> preflight(HttpServerRequest req, HttpServerResponse res) {
+        return cors(res)
+                .status(HttpResponseStatus.NO_CONTENT)
+                .header("Access-Control-Allow-Methods", "GET, OPTIONS")
+                .header("Access-Control-Allow-Headers", "Authorization, Content-Type")
+                .header("Access-Control-Max-Age", "3600")
+                .send();
+    }
+
+    // ---- plumbing -----------------------------------------------------------
+
+    // tenant of a valid token, null if unauthenticated
+    private String tenant(HttpServerRequest req) {
+        String header = req.requestHeaders().get(HttpHeaderNames.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            Claims claims = jwtService.parse(header.substring(7));
+            return claims.getSubject() != null ? JwtService.tenantOf(claims) : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Publisher<Void> json(HttpServerResponse res, String route, byte[] body) {
+        count(route, HttpResponseStatus.OK);
+        return cors(res)
+                .status(HttpResponseStatus.OK)
+                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .header(HttpHeaderNames.CONTENT_LENGTH, Integer.toString(body.length))
+                .sendByteArray(Mono.just(body));
+    }
+
+    private Publisher<Void> error(HttpServerResponse res, String route, HttpResponseStatus status) {
+        count(route, status);
+        byte[] body = status.reasonPhrase().getBytes(StandardCharsets.UTF_8);
+        return cors(res)
+                .status(status)
+                .header(HttpHeaderNames.CONTENT_TYPE, "text/plain")
+                .sendByteArray(Mono.just(body));
+    }
+
+    private HttpServerResponse cors(HttpServerResponse res) {
+        return res.header("Access-Control-Allow-Origin", allowedOrigin)
+                .header("Access-Control-Allow-Credentials", "true")
+                .addHeader("Vary", "Origin");
+    }
+
+    private void count(String route, HttpResponseStatus status) {
+        registry.counter("catalog.reactive.requests", "route", route, "status", Integer.toString(status.code()))
+                .increment();
+    }
+
+    private static boolean acceptsGzip(HttpServerRequest req) {
+        String accept = req.requestHeaders().get(HttpHeaderNames.ACCEPT_ENCODING);
+        return accept != null && accept.toLowerCase().contains("gzip");
+    }
+
+    private static Long parseId(String raw) {
+        try {
+            return raw == null ? null : Long.valueOf(raw);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String first(Map<String, List<String>> query, String name, String fallback) {
+        List<String> values = query.get(name);
+        return values == null || values.isEmpty() ? fallback : values.get(0);
+    }
+}
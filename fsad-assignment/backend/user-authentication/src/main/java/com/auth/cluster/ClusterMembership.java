@@ -0,0 +1,91 @@
+package com.auth.cluster;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.auth.entity.ClusterNode;
+import com.auth.repository.ClusterNodeRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Tracks which instances are alive through heartbeats in the shared database
+ * and tells each one which shard of the scheduled work is its own. When a
+ * node stops heartbeating its rows are redistributed over the survivors on
+ * their next run.
+ */
+@Component
+public class ClusterMembership {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private final ClusterNodeRepository repo;
+    private final Duration nodeTimeout;
+    private final String nodeId;
+    private volatile int liveNodes;
+
+    public ClusterMembership(ClusterNodeRepository repo,
+                             @Value("${cluster.node-timeout:30s}") Duration nodeTimeout,
+                             MeterRegistry registry) {
+        this.repo = repo;
+        this.nodeTimeout = nodeTimeout;
+        this.nodeId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        Gauge.builder("cluster.nodes.live", this, m -> m.liveNodes).register(registry);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.heartbeat-interval:10000}")
+    public void heartbeat() {
+        Instant now = Instant.now();
+        if (repo.heartbeat(nodeId, now) == 0) {
+            ClusterNode node = new ClusterNode();
+            node.setNodeId(nodeId);
+            node.setStartedAt(now);
+            node.setLastHeartbeat(now);
+            repo.save(node);
+            log.info("Joined cluster as {}", nodeId);
+        }
+        // anyone may clean up; deleting an already deleted row is harmless
+        repo.deleteStale(now.minus(nodeTimeout.multipliedBy(10)));
+    }
+
+    /** This node's shard, or empty if it is not (yet) registered as alive. */
+    public Optional<Shard> currentShard() {
+        List<String> live = repo.findLiveNodeIds(Instant.now().minus(nodeTimeout));
+        liveNodes = live.size();
+        int index = live.indexOf(nodeId);
+        return index < 0 ? Optional.empty() : Optional.of(new Shard(index, live.size()));
+    }
+
+    @PreDestroy
+    public void leave() {
+        try {
+            repo.deleteById(nodeId); // lets the others take over on their next run
+        } catch (RuntimeException e) {
+            log.warn("Could not deregister {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.auth.cluster;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.auth.entity.SchedulerLease;
+import com.auth.repository.SchedulerLeaseRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * DB-backed leases for jobs that must run on exactly one node. Take the lease
+ * at the start of each run with a TTL longer than the run; if the node dies
+ * the lease simply expires.
+ */
+@Service
+public class LeaseService {
+
+    private final SchedulerLeaseRepository repo;
+    private final ClusterMembership membership;
+
+    public LeaseService(SchedulerLeaseRepository repo, ClusterMembership membership) {
+        this.repo = repo;
+        this.membership = membership;
+    }
+
+    public boolean tryAcquire(String name, Duration ttl) {
+        Instant now = Instant.now();
+        String owner = membership.nodeId();
+        if (repo.tryTake(name, owner, now, now.plus(ttl)) == 1) {
+            return true;
+        }
+        if (repo.existsById(name)) {
+            return false;
+        }
+        // first run ever: whoever inserts the row wins
+        try {
+            SchedulerLease lease = new SchedulerLease();
+            lease.setName(name);
+            lease.setOwner(owner);
+            lease.setExpiresAt(now.plus(ttl));
+            repo.saveAndFlush(lease);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        try {
+            repo.releaseAll(membership.nodeId(), Instant.now());
+        } catch (RuntimeException e) {
+            // shutting down anyway; the leases expire on their own
+        }
+    }
+}
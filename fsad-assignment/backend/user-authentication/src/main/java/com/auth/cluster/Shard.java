@@ -0,0 +1,10 @@
+package com.auth.cluster;
+
+/**
+ * Slice of the work owned by one node: rows whose {@code id % count == index}.
+ */
+public record Shard(int index, int count) {
+
+    /** Everything, for single-node runs and manual triggers. */
+    public static final Shard ALL = new Shard(0, 1);
+}
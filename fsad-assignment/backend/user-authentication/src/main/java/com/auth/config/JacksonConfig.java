@@ -0,0 +1,65 @@
+package com.auth.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Jackson tuning for the large list responses. Blackbird replaces reflective
+ * getter/setter calls with generated lambdas; Boot registers any Module bean
+ * on the shared ObjectMapper, so MVC responses, the catalog snapshot and the
+ * reactive catalog port all pick it up.
+ * <p>
+ * Clients that ask for {@code application/cbor} or
+ * {@code application/x-jackson-smile} get the same DTOs in that binary
+ * encoding (and may send request bodies in it), built from the same mapper
+ * settings as JSON. They replace the CBOR/Smile converters Spring MVC adds on
+ * its own once the dataformats are on the classpath (those use a bare mapper,
+ * without Boot's date format or Blackbird) and go after the JSON one, so
+ * {@code Accept: *}{@code /*} or no Accept header still gets JSON.
+ */
+@Configuration
+public class JacksonConfig implements WebMvcConfigurer {
+
+    @Value("${json.binary-formats.enabled:true}")
+    private boolean binaryEnabled;
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    public JacksonConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        this.builders = builders;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "json.blackbird.enabled", havingValue = "true", matchIfMissing = true)
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(c -> c instanceof MappingJackson2CborHttpMessageConverter
+                || c instanceof MappingJackson2SmileHttpMessageConverter);
+        if (!binaryEnabled) {
+            return;
+        }
+        // the builder bean is a prototype carrying Boot's Jackson settings and modules; one per format
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                builders.getObject().factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                builders.getObject().factory(new SmileFactory()).build()));
+    }
+}
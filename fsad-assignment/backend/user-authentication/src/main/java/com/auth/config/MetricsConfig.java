@@ -0,0 +1,32 @@
+package com.auth.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.auth.monitoring.SqlStatementInspector;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Metrics wiring. Controllers (http.server.requests), repositories
+ * (spring.data.repository.invocations) and the Hikari pool (hikaricp.*) are
+ * instrumented by Spring Boot itself; this adds @Timed support for the
+ * services and the statement inspector behind query budgets and sampled SQL
+ * logging.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspectorCustomizer(@Value("${monitoring.sql.sample-rate:100}") int sampleRate) {
+        return props -> props.put("hibernate.session_factory.statement_inspector", new SqlStatementInspector(sampleRate));
+    }
+}
@@ -0,0 +1,43 @@
+package com.auth.config;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.auth.entity.Equipment;
+import com.auth.entity.User;
+import com.auth.service.SingleFlight;
+import com.auth.tenant.TenantKey;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Request coalescing for the hot single-row reads: equipment by id (a new kit
+ * being announced) and user by email (every authenticated request). Keys are
+ * tenant-scoped, so one tenant never gets another's row from here.
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    @Value("${singleflight.result-ttl:1s}")
+    private Duration resultTtl;
+
+    @Value("${singleflight.max-wait:2s}")
+    private Duration maxWait;
+
+    @Value("${singleflight.max-entries:10000}")
+    private int maxEntries;
+
+    @Bean
+    public SingleFlight<TenantKey<Long>, Optional<Equipment>> equipmentById(MeterRegistry registry) {
+        return new SingleFlight<>("equipment.by-id", resultTtl, maxWait, maxEntries, registry);
+    }
+
+    @Bean
+    public SingleFlight<TenantKey<String>, Optional<User>> userByEmail(MeterRegistry registry) {
+        return new SingleFlight<>("user.by-email", resultTtl, maxWait, maxEntries, registry);
+    }
+}
@@ -1,18 +1,29 @@
 package com.auth.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.auth.archive.BorrowHistoryService;
 import com.auth.dto.ApproveRequestDto;
 import com.auth.dto.BorrowRequestDto;
+import com.auth.dto.ChangeFeed;
 import com.auth.entity.BorrowRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.service.BorrowChangeFeedService;
 import com.auth.service.BorrowRequestService;
+import com.auth.service.ChangeFeedLongPoll;
 
 @RestController
 @RequestMapping("/api/borrow")
@@ -21,6 +32,15 @@ public class BorrowRequestController {
     @Autowired
     private BorrowRequestService service;
 
+    @Autowired
+    private BorrowChangeFeedService changeFeed;
+
+    @Autowired
+    private ChangeFeedLongPoll longPoll;
+
+    @Autowired
+    private BorrowHistoryService history;
+
     // ✅ Create a borrow request
     @PostMapping("/request")
     @PreAuthorize("hasAnyRole('STUDENT','STAFF')")
@@ -33,9 +53,25 @@ public class BorrowRequestController {
     // ✅ Get all borrow requests of the logged-in user
     @GetMapping("/my")
     @PreAuthorize("hasAnyRole('STUDENT','STAFF')")
-    public List<BorrowRequest> myRequests(Authentication auth) {
+    public List<BorrowRequest> myRequests(@RequestParam(defaultValue = "false") boolean includeArchived,
+                                          Authentication auth) {
         Long userId = getUserIdFromAuth(auth);
-        return service.getRequestsByUser(userId);
+        // closed requests past the archive horizon only come back when asked for
+        return includeArchived ? history.getRequestsByUser(userId) : service.getRequestsByUser(userId);
+    }
+
+    /**
+     * [GET] /api/borrow/my/changes?since=&lt;cursor&gt;&amp;wait=&lt;seconds&gt;
+     * Requests of the logged-in user written after the cursor. With wait &gt; 0
+     * the call is held until something changes or the wait runs out.
+     */
+    @GetMapping("/my/changes")
+    @PreAuthorize("hasAnyRole('STUDENT','STAFF')")
+    public DeferredResult<ChangeFeed> myChanges(@RequestParam(required = false) String since,
+                                                @RequestParam(defaultValue = "0") int wait,
+                                                Authentication auth) {
+        Long userId = getUserIdFromAuth(auth);
+        return longPoll.await(userId, wait, () -> changeFeed.myChanges(userId, since));
     }
 
     // ✅ Approve request (ADMIN or STAFF)
@@ -88,6 +124,44 @@ public class BorrowRequestController {
         return service.getIssuedRequests();
     }
 
+    /**
+     * [GET] /api/borrow/pending/changes and /api/borrow/issued/changes
+     * Without a cursor: the current queue. With one: every request written
+     * since, so rows that left the queue arrive with their new status.
+     */
+    @GetMapping("/pending/changes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public DeferredResult<ChangeFeed> pendingChanges(@RequestParam(required = false) String since,
+                                                     @RequestParam(defaultValue = "0") int wait) {
+        List<BorrowStatus> statuses = List.of(BorrowStatus.PENDING, BorrowStatus.APPROVED);
+        return longPoll.await(null, wait, () -> changeFeed.queueChanges(statuses, since));
+    }
+
+    @GetMapping("/issued/changes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public DeferredResult<ChangeFeed> issuedChanges(@RequestParam(required = false) String since,
+                                                    @RequestParam(defaultValue = "0") int wait) {
+        return longPoll.await(null, wait, () -> changeFeed.queueChanges(List.of(BorrowStatus.ISSUED), since));
+    }
+
+
+    /**
+     * [GET] /api/borrow/export?from=&amp;to=&amp;includeArchived=
+     * Requests overlapping the date range as CSV, streamed. (Admin/Staff action)
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        StreamingResponseBody body = out -> history.exportCsv(from, to, includeArchived, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"borrow-requests-" + from + "-" + to + ".csv\"")
+                .body(body);
+    }
+
 
     // ✅ Utility method — extract userId from Authentication
   
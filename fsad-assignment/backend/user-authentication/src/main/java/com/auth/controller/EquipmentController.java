@@ -1,5 +1,6 @@
 package com.auth.controller;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,16 +13,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.auth.attachment.AttachmentService;
 import com.auth.entity.Equipment;
+import com.auth.entity.EquipmentAttachment;
 import com.auth.service.EquipmentService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/api/equipment")
 public class EquipmentController {
     @Autowired private EquipmentService equipmentService;
+    @Autowired private AttachmentService attachmentService;
 
     @GetMapping
     public List<Equipment> list() { return equipmentService.listAll(); }
@@ -45,5 +54,37 @@ public class EquipmentController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> delete(@PathVariable Long id) { equipmentService.delete(id); return ResponseEntity.noContent().build(); }
+
+    // raw body, not multipart: the bytes go straight from the socket to the store
+    @PostMapping("/{id}/attachments")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EquipmentAttachment> upload(@PathVariable Long id, @RequestParam String filename,
+            @RequestHeader(value = "Content-Type", required = false) String contentType,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(attachmentService.upload(id, filename, contentType, request.getInputStream()));
+    }
+
+    @GetMapping("/{id}/attachments")
+    public List<EquipmentAttachment> attachments(@PathVariable Long id) { return attachmentService.list(id); }
+
+    @GetMapping("/{id}/attachments/{attachmentId}")
+    public void download(@PathVariable Long id, @PathVariable Long attachmentId,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        attachmentService.download(id, attachmentId, request, response);
+    }
+
+    @GetMapping("/{id}/attachments/{attachmentId}/thumbnail")
+    public void thumbnail(@PathVariable Long id, @PathVariable Long attachmentId,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        attachmentService.downloadThumbnail(id, attachmentId, request, response);
+    }
+
+    @DeleteMapping("/{id}/attachments/{attachmentId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deleteAttachment(@PathVariable Long id, @PathVariable Long attachmentId) {
+        attachmentService.delete(id, attachmentId);
+        return ResponseEntity.noContent().build();
+    }
 }
 
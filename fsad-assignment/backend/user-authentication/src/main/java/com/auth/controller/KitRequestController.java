@@ -0,0 +1,85 @@
+package com.auth.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.auth.dto.ApproveRequestDto;
+import com.auth.dto.KitRequestDetails;
+import com.auth.dto.KitRequestDto;
+import com.auth.entity.KitRequest;
+import com.auth.security.CustomUserDetails;
+import com.auth.service.KitRequestService;
+
+/**
+ * Multi-item ("kit") requests, e.g. everything one practical needs. Lines
+ * are ordinary borrow requests and also show up under /api/borrow/my.
+ */
+@RestController
+@RequestMapping("/api/borrow/kits")
+public class KitRequestController {
+
+    @Autowired
+    private KitRequestService service;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('STUDENT','STAFF')")
+    public ResponseEntity<KitRequestDetails> create(@RequestBody KitRequestDto dto, Authentication auth) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.create(getUserIdFromAuth(auth), dto));
+    }
+
+    @GetMapping("/my")
+    @PreAuthorize("hasAnyRole('STUDENT','STAFF')")
+    public List<KitRequest> myKits(Authentication auth) {
+        return service.getKitsByUser(getUserIdFromAuth(auth));
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('STUDENT','STAFF','ADMIN')")
+    public KitRequestDetails get(@PathVariable Long id, Authentication auth) {
+        KitRequestDetails details = service.get(id);
+        boolean privileged = auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN") || a.getAuthority().equals("ROLE_STAFF"));
+        if (!privileged && !details.kit().getUserId().equals(getUserIdFromAuth(auth))) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Kit request not found");
+        }
+        return details;
+    }
+
+    @PutMapping("/{id}/approve")
+    @PreAuthorize("hasAnyRole('STAFF','ADMIN')")
+    public KitRequestDetails approve(@PathVariable Long id, @RequestBody ApproveRequestDto dto, Authentication auth) {
+        return service.approve(id, getUserIdFromAuth(auth), dto.getComment());
+    }
+
+    @PutMapping("/{id}/issue")
+    @PreAuthorize("hasAnyRole('STAFF','ADMIN')")
+    public KitRequestDetails issue(@PathVariable Long id, Authentication auth) {
+        return service.issue(id, getUserIdFromAuth(auth));
+    }
+
+    @PutMapping("/{id}/return")
+    @PreAuthorize("hasAnyRole('STAFF','ADMIN')")
+    public KitRequestDetails markReturn(@PathVariable Long id) {
+        return service.markReturned(id);
+    }
+
+    @PutMapping("/{id}/reject")
+    @PreAuthorize("hasAnyRole('STAFF','ADMIN')")
+    public KitRequestDetails reject(@PathVariable Long id, @RequestBody ApproveRequestDto dto) {
+        return service.reject(id, dto.getComment());
+    }
+
+    private Long getUserIdFromAuth(Authentication auth) {
+        if (auth.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.getId();
+        }
+        throw new RuntimeException("Unable to extract user ID from authentication");
+    }
+}
@@ -28,7 +28,7 @@ private OverdueCheckService overdueCheckService;
 // This is a test endpoint to trigger notifications, for testing through Postman.
 @GetMapping("/runcheck")
 public ResponseEntity<String> runOverdueCheck() {
-    overdueCheckService.checkOverdues();
+    overdueCheckService.checkAllOverdues();
     return ResponseEntity.ok("Overdue check triggered!");
 }
 }
@@ -0,0 +1,55 @@
+package com.auth.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.auth.dto.UtilizationReportRow;
+import com.auth.entity.UtilizationRollup;
+import com.auth.report.UtilizationBackfill;
+import com.auth.report.UtilizationReportService;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    @Autowired
+    private UtilizationReportService reports;
+
+    @Autowired
+    private UtilizationBackfill backfill;
+
+    /**
+     * [GET] /api/reports/utilization?granularity=WEEK|MONTH|DAY&amp;groupBy=equipment|category&amp;from=&amp;to=
+     * Days on loan, peak concurrent units, average loan length and overdue rate per period.
+     */
+    @GetMapping("/utilization")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public List<UtilizationReportRow> utilization(
+            @RequestParam(defaultValue = "WEEK") UtilizationRollup.Granularity granularity,
+            @RequestParam(defaultValue = "equipment") String groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reports.utilization(granularity, "category".equalsIgnoreCase(groupBy), from, to);
+    }
+
+    /**
+     * [POST] /api/reports/utilization/backfill
+     * Rebuilds the rollups from borrow history in the background. (Admin action)
+     */
+    @PostMapping("/utilization/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> backfill() {
+        return ResponseEntity.status(backfill.start() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).build();
+    }
+}
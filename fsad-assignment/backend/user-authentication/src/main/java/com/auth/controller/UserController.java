@@ -1,7 +1,7 @@
 package com.auth.controller;
 
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -14,7 +14,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.auth.dto.AuthTokens;
 import com.auth.dto.LoginRequest;
+import com.auth.dto.RefreshRequest;
 import com.auth.dto.SignupRequest;
 import com.auth.entity.User;
 import com.auth.service.UserService;
@@ -28,17 +30,29 @@ public class UserController {
     // 🟢 Signup: open for all users
     @PostMapping("/signup")
     @PreAuthorize("isAnonymous() or permitAll()")
-    public Map<String, String> signup(@RequestBody SignupRequest signupRequest) {
-        String token = userService.signup(signupRequest);
-        return Map.of("token", token);
+    public CompletableFuture<AuthTokens> signup(@RequestBody SignupRequest signupRequest) {
+        return userService.signup(signupRequest);
     }
 
     // 🟢 Login: open for all users
     @PostMapping("/login")
     @PreAuthorize("isAnonymous() or permitAll()")
-    public Map<String, String> login(@RequestBody LoginRequest loginRequest) {
-        String token = userService.login(loginRequest.getEmail(), loginRequest.getPassword());
-        return Map.of("token", token);
+    public CompletableFuture<AuthTokens> login(@RequestBody LoginRequest loginRequest) {
+        return userService.login(loginRequest.getEmail(), loginRequest.getPassword());
+    }
+
+    // 🟢 Refresh: swap a refresh token for a new access + refresh token pair
+    @PostMapping("/refresh")
+    @PreAuthorize("isAnonymous() or permitAll()")
+    public AuthTokens refresh(@RequestBody RefreshRequest refreshRequest) {
+        return userService.refresh(refreshRequest.getRefreshToken());
+    }
+
+    // 🟢 Logout: revoke the refresh token (and every token rotated from it)
+    @PostMapping("/logout")
+    @PreAuthorize("isAnonymous() or permitAll()")
+    public void logout(@RequestBody RefreshRequest refreshRequest) {
+        userService.logout(refreshRequest.getRefreshToken());
     }
 
     // 🟡 Get all users — only ADMIN can access
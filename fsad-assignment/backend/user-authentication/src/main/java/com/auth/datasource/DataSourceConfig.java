@@ -0,0 +1,119 @@
+package com.auth.datasource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.auth.tenant.TenantProperties;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Primary pool from spring.datasource.*, a smaller pool on the same database
+ * reserved for staff requests, an optional replica pool from
+ * app.datasource.replica.*, one pool per dedicated tenant database from
+ * app.tenants.databases.*, and the routing DataSource JPA actually uses.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    // bulkhead partition: staff/admin requests (Compartment.STAFF) only use this pool
+    @Bean
+    @ConditionalOnProperty(prefix = "app.datasource.staff", name = "enabled", matchIfMissing = true)
+    @ConfigurationProperties("app.datasource.staff.hikari")
+    public HikariDataSource staffDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("staff");
+        ds.setMaximumPoolSize(5);
+        return ds;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaProperties replica) {
+        HikariDataSource ds = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replica.getUrl())
+                .username(replica.getUsername())
+                .password(replica.getPassword())
+                .build();
+        ds.setPoolName("replica");
+        ds.setReadOnly(true);
+        return ds;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               ReplicaProperties properties,
+                                               MeterRegistry registry) {
+        return new ReplicaLagMonitor(replica, properties, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica,
+                                 ObjectProvider<ReplicaLagMonitor> replicaLag,
+                                 @Qualifier("staffDataSource") ObjectProvider<DataSource> staff,
+                                 TenantProperties tenants,
+                                 @Value("${spring.flyway.enabled:true}") boolean migrate,
+                                 @Value("${spring.flyway.baseline-version:0}") String baselineVersion) {
+        ReplicaLagMonitor monitor = replicaLag.getIfAvailable();
+        DataSource shared = new ReadWriteRoutingDataSource(primary, monitor != null ? replica.getIfAvailable() : null,
+                monitor, staff.getIfAvailable());
+        if (tenants.getDatabases().isEmpty()) {
+            return new LazyConnectionDataSourceProxy(shared);
+        }
+        Map<String, DataSource> dedicated = new LinkedHashMap<>();
+        tenants.getDatabases().forEach((name, db) -> dedicated.put(name, tenantDataSource(name, db, migrate, baselineVersion)));
+        return new LazyConnectionDataSourceProxy(new TenantRoutingDataSource(shared, dedicated));
+    }
+
+    // Boot's Flyway only migrates the primary, so dedicated databases are migrated here
+    private static HikariDataSource tenantDataSource(String name, TenantProperties.Database db, boolean migrate,
+                                                     String baselineVersion) {
+        HikariDataSource ds = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(db.getUrl())
+                .username(db.getUsername())
+                .password(db.getPassword())
+                .build();
+        ds.setPoolName("tenant-" + name);
+        ds.setMaximumPoolSize(db.getMaximumPoolSize());
+        if (migrate) {
+            Flyway.configure()
+                    .dataSource(ds)
+                    .locations("classpath:db/migration")
+                    .baselineOnMigrate(true)
+                    .baselineVersion(baselineVersion)
+                    .load()
+                    .migrate();
+        }
+        return ds;
+    }
+}
@@ -0,0 +1,60 @@
+package com.auth.datasource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.auth.bulkhead.Compartment;
+
+/**
+ * Sends connections for staff requests to their own pool on the primary,
+ * read-only transactions to the replica and everything else to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only
+ * known once the transaction has started, after Hibernate has asked for its
+ * connection.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA, STAFF }
+
+    private final ReplicaLagMonitor replicaLag;
+
+    private final boolean staffPool;
+
+    /** replica/replicaLag and staff are null when not configured. */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor replicaLag,
+                                      DataSource staff) {
+        this.replicaLag = replicaLag;
+        this.staffPool = staff != null;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Target.PRIMARY, primary);
+        if (replica != null) {
+            targets.put(Target.REPLICA, replica);
+        }
+        if (staff != null) {
+            targets.put(Target.STAFF, staff);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // staff never wait behind student traffic for a connection, reads included
+        if (staffPool && Compartment.current() == Compartment.STAFF) {
+            return Target.STAFF;
+        }
+        if (replicaLag != null
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && replicaLag.isUsable()) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+}
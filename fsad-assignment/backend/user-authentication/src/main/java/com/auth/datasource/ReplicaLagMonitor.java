@@ -0,0 +1,74 @@
+package com.auth.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Polls the replica's replication delay. While it is unreachable, not
+ * replicating, or behind by more than the configured maximum, read-only
+ * transactions are routed to the primary instead.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final ReplicaProperties properties;
+    private volatile boolean usable = true;
+    private volatile long lagSeconds;
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaProperties properties, MeterRegistry registry) {
+        this.replica = replica;
+        this.properties = properties;
+        Gauge.builder("datasource.replica.lag", this, m -> m.lagSeconds)
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("datasource.replica.usable", this, m -> m.usable ? 1 : 0)
+                .register(registry);
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:5000}")
+    public void check() {
+        if (!properties.isCheckLag()) {
+            return;
+        }
+        try (Connection con = replica.getConnection();
+             Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                // not configured as a replica (e.g. a second local instance in tests)
+                update(0L);
+                return;
+            }
+            long lag = rs.getLong("Seconds_Behind_Source");
+            update(rs.wasNull() ? null : lag); // NULL = replication threads stopped
+        } catch (SQLException e) {
+            log.warn("Replica lag check failed, reads go to the primary: {}", e.getMessage());
+            update(null);
+        }
+    }
+
+    void update(Long lag) {
+        boolean wasUsable = usable;
+        lagSeconds = lag == null ? -1 : lag;
+        usable = lag != null && lag <= properties.getMaxLag().toSeconds();
+        if (wasUsable != usable) {
+            log.warn("Replica {} (lag {}s)", usable ? "back in rotation" : "taken out of rotation", lagSeconds);
+        }
+    }
+}
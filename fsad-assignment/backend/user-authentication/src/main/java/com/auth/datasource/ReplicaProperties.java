@@ -0,0 +1,64 @@
+package com.auth.datasource;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optional read replica. Without {@code app.datasource.replica.url} every
+ * connection goes to the primary. Pool settings go under
+ * {@code app.datasource.replica.hikari.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaProperties {
+
+    private String url;
+    private String username;
+    private String password;
+    /** Reads fall back to the primary while the replica is further behind than this. */
+    private Duration maxLag = Duration.ofSeconds(2);
+    /** Disable for a stand-alone instance that is not actually replicating. */
+    private boolean checkLag = true;
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public boolean isCheckLag() {
+        return checkLag;
+    }
+
+    public void setCheckLag(boolean checkLag) {
+        this.checkLag = checkLag;
+    }
+}
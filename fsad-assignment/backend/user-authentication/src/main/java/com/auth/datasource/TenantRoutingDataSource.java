@@ -0,0 +1,33 @@
+package com.auth.datasource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.auth.tenant.TenantContext;
+
+/**
+ * Sends connections to the database of the current tenant scope: tenants
+ * with a dedicated database use its pool, everyone else the shared routing
+ * (primary, replica and staff pools). Like ReadWriteRoutingDataSource it must
+ * sit behind a LazyConnectionDataSourceProxy.
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource {
+
+    public TenantRoutingDataSource(DataSource shared, Map<String, DataSource> dedicated) {
+        Map<Object, Object> targets = new HashMap<>(dedicated);
+        targets.put(TenantContext.SHARED_DATABASE, shared);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shared);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TenantContext.database();
+    }
+}
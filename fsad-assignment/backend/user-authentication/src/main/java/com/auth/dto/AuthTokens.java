@@ -0,0 +1,10 @@
+package com.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+@Data
+@AllArgsConstructor
+public class AuthTokens {
+  private String token;        // short-lived JWT access token
+  private String refreshToken; // opaque, single use
+}
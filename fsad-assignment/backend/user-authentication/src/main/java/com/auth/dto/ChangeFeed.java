@@ -0,0 +1,12 @@
+package com.auth.dto;
+
+import java.util.List;
+
+import com.auth.entity.BorrowRequest;
+
+/**
+ * One page of a change feed. Items are full rows to upsert on the client,
+ * oldest change first; pass {@code cursor} back as {@code since} for the
+ * next page. {@code hasMore} means another page is already waiting.
+ */
+public record ChangeFeed(List<BorrowRequest> items, String cursor, boolean hasMore) {}
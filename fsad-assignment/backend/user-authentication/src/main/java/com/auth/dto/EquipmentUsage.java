@@ -0,0 +1,4 @@
+package com.auth.dto;
+
+/** Units of one equipment item held by approved or issued requests over a date range. */
+public record EquipmentUsage(Long equipmentId, Long quantity) {}
@@ -0,0 +1,9 @@
+package com.auth.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.auth.entity.BorrowStatus;
+
+/** An open request (or kit) as the expiry index loads it: what its due time depends on. */
+public record ExpiryCandidate(Long id, BorrowStatus status, Instant createdAt, LocalDate startDate, LocalDate endDate) {}
@@ -0,0 +1,21 @@
+package com.auth.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.auth.entity.BorrowStatus;
+
+/**
+ * The TTLs as of one instant, in the form the expiry queries check them: a
+ * pending request expires when it was created at or before
+ * {@code pendingCreatedBy} or its end date is before {@code pendingEndedBefore},
+ * an approved one when its start date is on or before {@code approvedStartedBy}.
+ */
+public record ExpiryCutoffs(Instant pendingCreatedBy, LocalDate pendingEndedBefore, LocalDate approvedStartedBy) {
+
+    public static String comment(BorrowStatus expiring) {
+        return expiring == BorrowStatus.APPROVED
+                ? "Cancelled automatically: not collected in time"
+                : "Cancelled automatically: not approved in time";
+    }
+}
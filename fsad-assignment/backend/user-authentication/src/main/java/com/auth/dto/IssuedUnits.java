@@ -0,0 +1,4 @@
+package com.auth.dto;
+
+/** Units of one item currently out on loan, per tenant. */
+public record IssuedUnits(String tenantId, Long equipmentId, Long quantity) {}
@@ -0,0 +1,9 @@
+package com.auth.dto;
+
+import java.util.List;
+
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.KitRequest;
+
+/** A kit header with its lines, ordered by equipment id. */
+public record KitRequestDetails(KitRequest kit, List<BorrowRequest> lines) {}
@@ -0,0 +1,29 @@
+package com.auth.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class KitRequestDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<BorrowRequestDto> lines; // equipmentId + quantity; dates come from the kit
+
+	public LocalDate getStartDate() {
+		return startDate;
+	}
+	public void setStartDate(LocalDate startDate) {
+		this.startDate = startDate;
+	}
+	public LocalDate getEndDate() {
+		return endDate;
+	}
+	public void setEndDate(LocalDate endDate) {
+		this.endDate = endDate;
+	}
+	public List<BorrowRequestDto> getLines() {
+		return lines;
+	}
+	public void setLines(List<BorrowRequestDto> lines) {
+		this.lines = lines;
+	}
+}
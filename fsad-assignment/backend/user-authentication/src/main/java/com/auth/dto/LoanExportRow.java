@@ -0,0 +1,11 @@
+package com.auth.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.auth.entity.BorrowStatus;
+
+/** One borrow request as exported, from either the live or the archive table. */
+public record LoanExportRow(Long id, Long userId, Long equipmentId, Integer quantity, LocalDate startDate,
+                            LocalDate endDate, BorrowStatus status, Instant createdAt, Instant updatedAt,
+                            boolean overdue, boolean archived) {}
@@ -0,0 +1,10 @@
+package com.auth.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.auth.entity.BorrowStatus;
+
+/** An issued or returned loan as the utilization backfill reads it, live or archived. */
+public record LoanFact(String tenantId, Long equipmentId, Integer quantity, LocalDate startDate,
+                       BorrowStatus status, Instant updatedAt, boolean overdue) {}
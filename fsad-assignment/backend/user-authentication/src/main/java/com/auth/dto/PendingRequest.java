@@ -0,0 +1,6 @@
+package com.auth.dto;
+
+import java.time.Instant;
+
+/** A pending request as the waitlist keeps it: enough to order it and find its row. */
+public record PendingRequest(Long requestId, Long equipmentId, Instant createdAt) {}
@@ -0,0 +1,15 @@
+package com.auth.dto;
+
+public class RefreshRequest {
+
+    private String refreshToken;
+
+	public String getRefreshToken() {
+		return refreshToken;
+	}
+
+	public void setRefreshToken(String refreshToken) {
+		this.refreshToken = refreshToken;
+	}
+
+}
@@ -0,0 +1,6 @@
+package com.auth.dto;
+
+import java.time.LocalDate;
+
+/** Quantity of one equipment item held by an approved or issued request over a date range. */
+public record ReservedLoan(Long equipmentId, Integer quantity, LocalDate startDate, LocalDate endDate) {}
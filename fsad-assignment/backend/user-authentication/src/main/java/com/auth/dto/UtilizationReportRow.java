@@ -0,0 +1,11 @@
+package com.auth.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One item's (or category's) usage over a period. Averages and the overdue
+ * rate are over loans returned in the period, null when there were none.
+ */
+public record UtilizationReportRow(LocalDate periodStart, Long equipmentId, String category,
+                                   long daysOnLoan, int peakConcurrent, int loansStarted, int loansReturned,
+                                   Double averageLoanDays, Double overdueRate) {}
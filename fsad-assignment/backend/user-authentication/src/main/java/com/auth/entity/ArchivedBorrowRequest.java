@@ -0,0 +1,57 @@
+package com.auth.entity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.TenantId;
+import java.time.Instant;
+import java.time.LocalDate;
+/**
+ * A closed BorrowRequest moved out of the live table. Same columns, plus when
+ * it was archived; the equipment is kept as a plain id.
+ */
+@Data
+@Entity
+@Table(name="borrow_request_archive", indexes = {
+    @Index(name="idx_borrow_request_archive_user", columnList="userId"),
+    @Index(name="idx_borrow_request_archive_start", columnList="startDate") })
+public class ArchivedBorrowRequest {
+  @Id
+  private Long id;
+  @TenantId @JsonIgnore
+  @Column(length=64, nullable=false, updatable=false)
+  private String tenantId;
+  private Long userId;
+  private Long equipmentId;
+  private Long kitId;
+  private Integer quantityRequested;
+  private LocalDate startDate;
+  private LocalDate endDate;
+  @Enumerated(EnumType.STRING)
+  private BorrowStatus status;
+  private Instant createdAt;
+  private Instant updatedAt;
+  private String adminComment;
+  private boolean overdue;
+  private Long changeSeq;
+  private Instant archivedAt;
+
+  /** Detached BorrowRequest with the same values, for responses that mix live and archived rows. */
+  public BorrowRequest toBorrowRequest(Equipment equipment) {
+    BorrowRequest br = new BorrowRequest();
+    br.setId(id);
+    br.setTenantId(tenantId);
+    br.setUserId(userId);
+    br.setEquipment(equipment);
+    br.setKitId(kitId);
+    br.setQuantityRequested(quantityRequested);
+    br.setStartDate(startDate);
+    br.setEndDate(endDate);
+    br.setStatus(status);
+    br.setCreatedAt(createdAt);
+    br.setUpdatedAt(updatedAt);
+    br.setAdminComment(adminComment);
+    br.setOverdue(overdue);
+    br.setChangeSeq(changeSeq);
+    return br;
+  }
+}
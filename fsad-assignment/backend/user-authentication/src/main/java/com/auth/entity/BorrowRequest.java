@@ -4,8 +4,12 @@ package com.auth.entity;
 import java.time.Instant;
 import java.time.LocalDate;
 
+import org.hibernate.annotations.TenantId;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -13,13 +17,19 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 @Entity
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
-@Table(name = "borrow_request")
+@Table(name = "borrow_request", indexes = {
+        @Index(name = "idx_borrow_request_change_seq", columnList = "changeSeq"),
+        @Index(name = "idx_borrow_request_tenant_change_seq", columnList = "tenantId, changeSeq"),
+        @Index(name = "idx_borrow_request_user_change_seq", columnList = "userId, changeSeq"),
+        @Index(name = "idx_borrow_request_kit", columnList = "kitId"),
+        @Index(name = "idx_borrow_request_status", columnList = "status, updatedAt") })
 public class BorrowRequest {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -43,6 +53,17 @@ public class BorrowRequest {
     private String adminComment;
 	private boolean overdue = false;
 
+    // position in the change feed; bumped on every write (see ChangeSequenceService)
+    private Long changeSeq;
+
+    private Long kitId; // set on the lines of a KitRequest
+
+    // campus or lab; filled and filtered by Hibernate (see TenantIdentifierResolver)
+    @TenantId
+    @JsonIgnore
+    @Column(length = 64, nullable = false, updatable = false)
+    private String tenantId;
+
 	public Long getId() {
 		return id;
 	}
@@ -131,4 +152,28 @@ public class BorrowRequest {
 		return overdue;
 	}
 
+	public Long getChangeSeq() {
+		return changeSeq;
+	}
+
+	public void setChangeSeq(Long changeSeq) {
+		this.changeSeq = changeSeq;
+	}
+
+	public Long getKitId() {
+		return kitId;
+	}
+
+	public void setKitId(Long kitId) {
+		this.kitId = kitId;
+	}
+
+	public String getTenantId() {
+		return tenantId;
+	}
+
+	public void setTenantId(String tenantId) {
+		this.tenantId = tenantId;
+	}
+
 }
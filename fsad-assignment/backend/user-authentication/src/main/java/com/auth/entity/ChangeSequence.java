@@ -0,0 +1,17 @@
+package com.auth.entity;
+import jakarta.persistence.*;
+import lombok.Data;
+/**
+ * Named counter handing out change sequence numbers. Taking a number locks
+ * the row until commit, so numbers become visible in the order they were
+ * taken and a reader's cursor never skips a change committed late.
+ */
+@Data
+@Entity
+@Table(name="change_sequence")
+public class ChangeSequence {
+  @Id
+  @Column(length=100)
+  private String name;
+  private long seqValue;
+}
@@ -0,0 +1,19 @@
+package com.auth.entity;
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+/**
+ * One running instance. Nodes heartbeat every few seconds; a node whose
+ * heartbeat is older than the timeout is treated as dead and its shard is
+ * picked up by the others.
+ */
+@Data
+@Entity
+@Table(name="cluster_node")
+public class ClusterNode {
+  @Id
+  @Column(length=100)
+  private String nodeId;
+  private Instant startedAt;
+  private Instant lastHeartbeat;
+}
@@ -1,16 +1,27 @@
 package com.auth.entity;
 
 import java.time.Instant;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.TenantId;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
-@Table(name = "equipment")
+@Table(name = "equipment", indexes = @Index(name = "idx_equipment_tenant", columnList = "tenantId"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // region com.auth.entity.Equipment, see ehcache.xml
 public class Equipment {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -24,6 +35,11 @@ public class Equipment {
 
     private Instant createdAt = Instant.now();
 
+    @TenantId
+    @JsonIgnore
+    @Column(length = 64, nullable = false, updatable = false)
+    private String tenantId;
+
 	public Long getId() {
 		return id;
 	}
@@ -87,4 +103,12 @@ public class Equipment {
 	public void setCreatedAt(Instant createdAt) {
 		this.createdAt = createdAt;
 	}
+
+	public String getTenantId() {
+		return tenantId;
+	}
+
+	public void setTenantId(String tenantId) {
+		this.tenantId = tenantId;
+	}
 }
\ No newline at end of file
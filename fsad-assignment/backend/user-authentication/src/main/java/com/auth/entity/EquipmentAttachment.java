@@ -0,0 +1,33 @@
+package com.auth.entity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.TenantId;
+import java.time.Instant;
+/**
+ * A photo or manual of an equipment item. Content is immutable: the row
+ * points at a file in the store by its SHA-256, which also serves as the
+ * ETag. Images get a thumbnail once, in the background.
+ */
+@Data
+@Entity
+@Table(name="equipment_attachment", indexes = {
+    @Index(name="idx_equipment_attachment_equipment", columnList="equipmentId"),
+    @Index(name="idx_equipment_attachment_sha", columnList="sha256") })
+public class EquipmentAttachment {
+  @Id @GeneratedValue(strategy=GenerationType.IDENTITY)
+  private Long id;
+  @TenantId @JsonIgnore
+  @Column(length=64, nullable=false, updatable=false)
+  private String tenantId;
+  private Long equipmentId;
+  private String filename;
+  @Column(length=100)
+  private String contentType;
+  private long size;
+  @Column(length=64)
+  private String sha256;
+  @Column(length=64)
+  private String thumbnailSha256;
+  private Instant createdAt=Instant.now();
+}
@@ -0,0 +1,30 @@
+package com.auth.entity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.TenantId;
+import java.time.Instant;
+import java.time.LocalDate;
+/**
+ * Header of a multi-item request (e.g. everything a practical needs). Its
+ * lines are ordinary BorrowRequests carrying kitId; they are approved,
+ * issued and rejected together, never one by one.
+ */
+@Data
+@Entity
+@Table(name="kit_request", indexes = @Index(name="idx_kit_request_user", columnList="userId"))
+public class KitRequest {
+  @Id @GeneratedValue(strategy=GenerationType.IDENTITY)
+  private Long id;
+  @TenantId @JsonIgnore
+  @Column(length=64, nullable=false, updatable=false)
+  private String tenantId;
+  private Long userId;
+  private LocalDate startDate;
+  private LocalDate endDate;
+  @Enumerated(EnumType.STRING)
+  private BorrowStatus status=BorrowStatus.PENDING;
+  private Instant createdAt=Instant.now();
+  private Instant updatedAt;
+  private String adminComment;
+}
@@ -1,6 +1,8 @@
 package com.auth.entity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
 @Data
 @Entity
@@ -8,6 +10,9 @@ import java.time.LocalDateTime;
 public class Notification {
   @Id @GeneratedValue(strategy=GenerationType.IDENTITY)
   private Long id;
+  @TenantId @JsonIgnore
+  @Column(length=64, nullable=false, updatable=false)
+  private String tenantId;
   private Long loanId;
   private String message;
   private LocalDateTime createdAt;
@@ -0,0 +1,29 @@
+package com.auth.entity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.TenantId;
+import java.time.Instant;
+/**
+ * Opaque refresh token. Only the SHA-256 of the token is stored; every token
+ * issued from one login shares a familyId so a replayed token can revoke the
+ * whole chain.
+ */
+@Data
+@Entity
+@Table(name="refresh_token", indexes = @Index(name="idx_refresh_token_family", columnList="familyId"))
+public class RefreshToken {
+  @Id @GeneratedValue(strategy=GenerationType.IDENTITY)
+  private Long id;
+  @TenantId @JsonIgnore
+  @Column(length=64, nullable=false, updatable=false)
+  private String tenantId;
+  private Long userId;
+  @Column(unique=true, length=64)
+  private String tokenHash;
+  @Column(length=36)
+  private String familyId;
+  private Instant expiresAt;
+  private Instant createdAt;
+  private boolean revoked=false;
+}
@@ -0,0 +1,19 @@
+package com.auth.entity;
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+/**
+ * Time-bounded lock for a job that must run on one node only. The owner
+ * renews it by taking it again; once expiresAt passes any node may take it.
+ */
+@Data
+@Entity
+@Table(name="scheduler_lease")
+public class SchedulerLease {
+  @Id
+  @Column(length=100)
+  private String name;
+  @Column(length=100)
+  private String owner;
+  private Instant expiresAt;
+}
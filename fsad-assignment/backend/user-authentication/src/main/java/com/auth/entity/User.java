@@ -3,13 +3,18 @@ package com.auth.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = "uk_users_tenant_email", columnNames = {"tenantId", "email"}))
+// not in the second-level cache: it is per node, and a deleted, demoted or re-passworded
+// user must stop authenticating everywhere at once (see ehcache.xml)
 public class User {
 
     @Id
@@ -18,13 +23,17 @@ public class User {
 
     private String name;
 
-    @Column(unique = true)
-    private String email;
+    private String email; // unique per tenant
 
     private String password;
 
     private String role; // e.g. STUDENT, STAFF, ADMIN
 
+    @TenantId
+    @JsonIgnore
+    @Column(length = 64, nullable = false, updatable = false)
+    private String tenantId;
+
 	public Long getId() {
 		return id;
 	}
@@ -0,0 +1,10 @@
+package com.auth.event;
+
+import com.auth.entity.BorrowStatus;
+
+/**
+ * A borrow request was created or changed and stamped with {@code changeSeq}.
+ * Listeners that need the committed row should use a transactional listener.
+ */
+public record BorrowRequestChangedEvent(Long requestId, Long userId, Long equipmentId, BorrowStatus status,
+                                        long changeSeq) {}
@@ -0,0 +1,7 @@
+package com.auth.event;
+
+/**
+ * Units of an equipment item became free (a return, a rejected approval or
+ * more stock), so pending requests for it may fit now.
+ */
+public record CapacityReleasedEvent(Long equipmentId) {}
@@ -0,0 +1,7 @@
+package com.auth.event;
+
+/**
+ * Published when equipment or a reservation against it changes, so read
+ * models built from the catalog know to rebuild. Null id = unknown/many.
+ */
+public record CatalogChangedEvent(Long equipmentId) {}
@@ -0,0 +1,102 @@
+package com.auth.expiry;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Open requests ordered by due time, so a check only looks at what is due
+ * and each insert, move or removal is O(log n). Keys carry the tenant
+ * database, since ids are only unique within one.
+ */
+final class ExpiryIndex {
+
+    enum Kind { REQUEST, KIT }
+
+    record Key(String database, Kind kind, Long id) {}
+
+    private record Entry(Instant dueAt, Key key) {}
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::dueAt)
+            .thenComparing(e -> e.key().database())
+            .thenComparing(e -> e.key().kind())
+            .thenComparing(e -> e.key().id());
+
+    private final TreeSet<Entry> byDueTime = new TreeSet<>(ORDER);
+    private final Map<Key, Entry> byKey = new HashMap<>();
+    // not synchronized: the listener and the jobs run on virtual threads, which must not pin their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    void put(Key key, Instant dueAt) {
+        lock.lock();
+        try {
+            Entry entry = new Entry(dueAt, key);
+            Entry old = byKey.put(key, entry);
+            if (old != null) {
+                byDueTime.remove(old);
+            }
+            byDueTime.add(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(Key key) {
+        lock.lock();
+        try {
+            Entry old = byKey.remove(key);
+            if (old != null) {
+                byDueTime.remove(old);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Takes up to {@code max} keys due at or before {@code now} out of the index, earliest first. */
+    List<Key> pollDue(Instant now, int max) {
+        List<Key> due = new ArrayList<>();
+        lock.lock();
+        try {
+            while (due.size() < max && !byDueTime.isEmpty() && !byDueTime.first().dueAt().isAfter(now)) {
+                Entry entry = byDueTime.pollFirst();
+                byKey.remove(entry.key());
+                due.add(entry.key());
+            }
+        } finally {
+            lock.unlock();
+        }
+        return due;
+    }
+
+    /** Replaces everything indexed for one database and kind. */
+    void replaceAll(String database, Kind kind, Map<Long, Instant> dueTimes) {
+        lock.lock();
+        try {
+            byKey.values().removeIf(e -> {
+                boolean stale = e.key().database().equals(database) && e.key().kind() == kind;
+                if (stale) {
+                    byDueTime.remove(e);
+                }
+                return stale;
+            });
+            dueTimes.forEach((id, at) -> put(new Key(database, kind, id), at));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return byKey.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.auth.expiry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.auth.dto.ExpiryCutoffs;
+import com.auth.entity.BorrowStatus;
+
+/**
+ * How long a request may stay open. A pending request expires
+ * {@code pending-ttl} after it was made, or once its end date has passed if
+ * that is sooner; an approved one expires {@code approved-ttl} after the start
+ * of its start date if it has not been issued by then.
+ */
+@Component
+public class ExpiryPolicy {
+
+    private final Duration pendingTtl;
+    private final Duration approvedTtl;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public ExpiryPolicy(@Value("${expiry.pending-ttl:P7D}") Duration pendingTtl,
+                        @Value("${expiry.approved-ttl:P2D}") Duration approvedTtl) {
+        this.pendingTtl = pendingTtl;
+        this.approvedTtl = approvedTtl;
+    }
+
+    /** When a request in {@code status} expires; null for statuses that never do. */
+    public Instant dueAt(BorrowStatus status, Instant createdAt, LocalDate startDate, LocalDate endDate) {
+        return switch (status) {
+            case PENDING -> {
+                Instant ttl = createdAt.plus(pendingTtl);
+                Instant ended = endDate.plusDays(1).atStartOfDay(zone).toInstant();
+                yield ttl.isBefore(ended) ? ttl : ended;
+            }
+            case APPROVED -> startDate.atStartOfDay(zone).toInstant().plus(approvedTtl);
+            default -> null;
+        };
+    }
+
+    // the same conditions as dueAt(...) <= now
+    public ExpiryCutoffs cutoffs(Instant now) {
+        return new ExpiryCutoffs(now.minus(pendingTtl), LocalDate.ofInstant(now, zone),
+                LocalDate.ofInstant(now.minus(approvedTtl), zone));
+    }
+}
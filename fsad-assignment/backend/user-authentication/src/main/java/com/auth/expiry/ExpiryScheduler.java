@@ -0,0 +1,182 @@
+package com.auth.expiry;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.auth.dto.ExpiryCandidate;
+import com.auth.dto.ExpiryCutoffs;
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.KitRequest;
+import com.auth.event.BorrowRequestChangedEvent;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.KitRequestRepository;
+import com.auth.service.BorrowRequestService;
+import com.auth.service.KitRequestService;
+import com.auth.tenant.TenantContext;
+import com.auth.tenant.TenantDatabases;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Cancels pending and approved requests (and kits) that outlived their TTL,
+ * so the capacity an uncollected approval holds goes back to the waitlist.
+ * Due times are kept in an in-memory index, rebuilt from the database at
+ * startup and periodically (which also picks up requests and kits made on
+ * other nodes); request change events move or drop single requests in
+ * between. Each check takes what is due in batches and cancels a batch per
+ * database in one transaction. The cancel re-checks the TTL on the locked
+ * rows, so a stale index entry or another node expiring the same request
+ * costs nothing but the check.
+ */
+@Component
+@ConditionalOnProperty(name = "expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class ExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiryScheduler.class);
+    private static final List<BorrowStatus> EXPIRING = List.of(BorrowStatus.PENDING, BorrowStatus.APPROVED);
+
+    private final ExpiryIndex index = new ExpiryIndex();
+    // requests changed since the last check; their due times are reloaded with one query per batch
+    private final Set<ExpiryIndex.Key> changed = ConcurrentHashMap.newKeySet();
+
+    private final BorrowRequestService borrowService;
+    private final KitRequestService kitService;
+    private final BorrowRequestRepository brRepo;
+    private final KitRequestRepository kitRepo;
+    private final TenantDatabases databases;
+    private final ExpiryPolicy policy;
+    private final int batchSize;
+    private final Timer batchTimer;
+    private final Counter expiredRequests;
+    private final Counter expiredKits;
+
+    public ExpiryScheduler(BorrowRequestService borrowService, KitRequestService kitService,
+                           BorrowRequestRepository brRepo, KitRequestRepository kitRepo,
+                           TenantDatabases databases, ExpiryPolicy policy, MeterRegistry registry,
+                           @Value("${expiry.batch-size:200}") int batchSize) {
+        this.borrowService = borrowService;
+        this.kitService = kitService;
+        this.brRepo = brRepo;
+        this.kitRepo = kitRepo;
+        this.databases = databases;
+        this.policy = policy;
+        this.batchSize = batchSize;
+        this.batchTimer = Timer.builder("expiry.batch").register(registry);
+        this.expiredRequests = Counter.builder("expiry.expired").tag("kind", "request").register(registry);
+        this.expiredKits = Counter.builder("expiry.expired").tag("kind", "kit").register(registry);
+        Gauge.builder("expiry.index.size", index, ExpiryIndex::size).register(registry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestChanged(BorrowRequestChangedEvent event) {
+        ExpiryIndex.Key key = new ExpiryIndex.Key(TenantContext.database(), ExpiryIndex.Kind.REQUEST, event.requestId());
+        if (EXPIRING.contains(event.status())) {
+            changed.add(key);
+        } else {
+            changed.remove(key);
+            index.remove(key);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${expiry.resync-interval-ms:300000}",
+               fixedDelayString = "${expiry.resync-interval-ms:300000}")
+    public void resync() {
+        databases.forEach(database -> {
+            index.replaceAll(database, ExpiryIndex.Kind.REQUEST, dueTimes(brRepo.findExpiryCandidates(EXPIRING)));
+            index.replaceAll(database, ExpiryIndex.Kind.KIT, dueTimes(kitRepo.findExpiryCandidates(EXPIRING)));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${expiry.check-interval-ms:60000}")
+    public void expireDue() {
+        reloadChanged();
+        Instant now = Instant.now();
+        ExpiryCutoffs cutoffs = policy.cutoffs(now);
+        List<ExpiryIndex.Key> due;
+        do {
+            due = index.pollDue(now, batchSize);
+            byDatabaseAndKind(due).forEach((database, kinds) -> kinds.forEach((kind, ids) ->
+                    TenantContext.run(new TenantContext.Scope(null, database), () -> expire(database, kind, ids, cutoffs))));
+        } while (due.size() == batchSize);
+    }
+
+    private void expire(String database, ExpiryIndex.Kind kind, List<Long> ids, ExpiryCutoffs cutoffs) {
+        try {
+            Set<Long> expired = batchTimer.record(() -> kind == ExpiryIndex.Kind.REQUEST
+                    ? borrowService.expire(ids, cutoffs).stream().map(BorrowRequest::getId).collect(Collectors.toSet())
+                    : kitService.expire(ids, cutoffs).stream().map(KitRequest::getId).collect(Collectors.toSet()));
+            (kind == ExpiryIndex.Kind.REQUEST ? expiredRequests : expiredKits).increment(expired.size());
+            // the rest were approved, issued or otherwise changed since they were indexed
+            List<Long> rest = ids.stream().filter(id -> !expired.contains(id)).toList();
+            if (!rest.isEmpty()) {
+                reload(database, kind, rest);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Expiring {} {}s failed; retrying on the next check", ids.size(), kind, e);
+            ids.forEach(id -> changed.add(new ExpiryIndex.Key(database, kind, id)));
+        }
+    }
+
+    private void reloadChanged() {
+        if (changed.isEmpty()) {
+            return;
+        }
+        List<ExpiryIndex.Key> keys = List.copyOf(changed);
+        changed.removeAll(keys);
+        byDatabaseAndKind(keys).forEach((database, kinds) -> kinds.forEach((kind, ids) -> {
+            for (int i = 0; i < ids.size(); i += batchSize) {
+                List<Long> chunk = ids.subList(i, Math.min(i + batchSize, ids.size()));
+                TenantContext.run(new TenantContext.Scope(null, database), () -> reload(database, kind, chunk));
+            }
+        }));
+    }
+
+    private void reload(String database, ExpiryIndex.Kind kind, List<Long> ids) {
+        Map<Long, Instant> due = dueTimes(kind == ExpiryIndex.Kind.REQUEST
+                ? brRepo.findExpiryCandidatesIn(EXPIRING, ids)
+                : kitRepo.findExpiryCandidatesIn(EXPIRING, ids));
+        for (Long id : ids) {
+            ExpiryIndex.Key key = new ExpiryIndex.Key(database, kind, id);
+            Instant at = due.get(id);
+            if (at == null) {
+                index.remove(key);
+            } else {
+                index.put(key, at);
+            }
+        }
+    }
+
+    private Map<Long, Instant> dueTimes(List<ExpiryCandidate> candidates) {
+        Map<Long, Instant> due = new HashMap<>();
+        for (ExpiryCandidate c : candidates) {
+            due.put(c.id(), policy.dueAt(c.status(), c.createdAt(), c.startDate(), c.endDate()));
+        }
+        return due;
+    }
+
+    private static Map<String, Map<ExpiryIndex.Kind, List<Long>>> byDatabaseAndKind(List<ExpiryIndex.Key> keys) {
+        return keys.stream().collect(Collectors.groupingBy(ExpiryIndex.Key::database,
+                Collectors.groupingBy(ExpiryIndex.Key::kind,
+                        Collectors.mapping(ExpiryIndex.Key::id, Collectors.toList()))));
+    }
+}
@@ -0,0 +1,65 @@
+package com.auth.monitoring;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records how long after JVM start the first /api response came back faster
+ * than the threshold (startup.first.fast.response, seconds). Together with
+ * application.ready.time this shows how much warm-up the instance still
+ * needed once it was marked ready.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class FirstFastResponseRecorder extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(FirstFastResponseRecorder.class);
+
+    private final long thresholdNanos;
+    private volatile double secondsSinceJvmStart = Double.NaN;
+
+    public FirstFastResponseRecorder(@Value("${monitoring.startup.fast-response-threshold:50ms}") Duration threshold,
+                                     MeterRegistry registry) {
+        this.thresholdNanos = threshold.toNanos();
+        Gauge.builder("startup.first.fast.response", this, r -> r.secondsSinceJvmStart)
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !Double.isNaN(secondsSinceJvmStart) || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        long t0 = System.nanoTime();
+        filterChain.doFilter(request, response);
+        long elapsed = System.nanoTime() - t0;
+        if (elapsed < thresholdNanos && response.getStatus() < 400 && Double.isNaN(secondsSinceJvmStart)) {
+            secondsSinceJvmStart = ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0;
+            log.info("First fast response ({} ms, {} {}) {} s after JVM start", TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    request.getMethod(), request.getRequestURI(), secondsSinceJvmStart);
+        }
+    }
+}
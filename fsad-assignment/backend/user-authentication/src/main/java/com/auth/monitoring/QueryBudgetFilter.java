@@ -0,0 +1,93 @@
+package com.auth.monitoring;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements each request issues, including the user lookup in
+ * the security chain, and warns when an endpoint goes over its budget. That is
+ * usually a lazy association being loaded row by row (N+1).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    /** Request attribute holding the statement count once the request completes. */
+    public static final String QUERY_COUNT_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".COUNT";
+
+    // the running count of an async request (login, signup, long-poll) between its dispatches
+    private static final String COUNTER_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".COUNTER";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final QueryBudgetProperties budgets;
+    private final MeterRegistry registry;
+
+    public QueryBudgetFilter(QueryBudgetProperties budgets, MeterRegistry registry) {
+        this.budgets = budgets;
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !budgets.isEnabled();
+    }
+
+    // an async request is reported when its last dispatch (writing the result) ends
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        AtomicInteger running = isAsyncDispatch(request) ? (AtomicInteger) request.getAttribute(COUNTER_ATTRIBUTE) : null;
+        if (running != null) {
+            QueryCounter.resume(running);
+        } else {
+            running = QueryCounter.start();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int queries = QueryCounter.stop();
+            if (isAsyncStarted(request)) {
+                // work handed off with QueryCounter.wrap keeps adding to it until the async dispatch
+                request.setAttribute(COUNTER_ATTRIBUTE, running);
+            } else {
+                report(request, queries);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, int queries) {
+        request.setAttribute(QUERY_COUNT_ATTRIBUTE, queries);
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        registry.summary("http.server.requests.queries", "uri", uri).record(queries);
+
+        int budget = budgets.budgetFor(uri);
+        if (queries > budget) {
+            registry.counter("query.budget.exceeded", "uri", uri).increment();
+            log.warn("{} {} ran {} SQL statements (budget {})", request.getMethod(), uri, queries, budget);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.auth.monitoring;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Allowed SQL statements per HTTP request. Endpoints are keyed by their
+ * request-mapping pattern, e.g.
+ * {@code monitoring.query-budget.endpoints[/api/borrow/my]=2}.
+ */
+@Component
+@ConfigurationProperties(prefix = "monitoring.query-budget")
+public class QueryBudgetProperties {
+
+    private boolean enabled = true;
+    private int defaultBudget = 10;
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public int budgetFor(String pattern) {
+        return endpoints.getOrDefault(pattern, defaultBudget);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getDefaultBudget() {
+        return defaultBudget;
+    }
+
+    public void setDefaultBudget(int defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+
+    public Map<String, Integer> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Integer> endpoints) {
+        this.endpoints = endpoints;
+    }
+}
@@ -0,0 +1,91 @@
+package com.auth.monitoring;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * SQL statement count for the request being served. Counting is only active
+ * between {@link #start()} and {@link #stop()}, so background jobs are not
+ * affected. Work a request hands to another thread (BCrypt on the hashing
+ * pool, a long-poll fetch) keeps counting against it when wrapped with
+ * {@link #wrap}, the same way {@code TenantContext.wrap} carries the tenant.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<AtomicInteger> COUNT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    /** Starts counting on this thread; the returned count can be {@link #resume resumed} on another. */
+    public static AtomicInteger start() {
+        AtomicInteger count = new AtomicInteger();
+        COUNT.set(count);
+        return count;
+    }
+
+    /** Continues an earlier count on this thread, e.g. in the async dispatch of the same request. */
+    public static void resume(AtomicInteger count) {
+        COUNT.set(count);
+    }
+
+    static void increment() {
+        AtomicInteger count = COUNT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+    }
+
+    /** Current count, or -1 when counting is not active on this thread. */
+    public static int current() {
+        AtomicInteger count = COUNT.get();
+        return count == null ? -1 : count.get();
+    }
+
+    public static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+
+    /** For work handed to another thread: its statements count against this thread's request. */
+    public static Runnable wrap(Runnable work) {
+        AtomicInteger count = COUNT.get();
+        if (count == null) {
+            return work;
+        }
+        return () -> {
+            AtomicInteger previous = COUNT.get();
+            COUNT.set(count);
+            try {
+                work.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public static <T> Supplier<T> wrap(Supplier<T> work) {
+        AtomicInteger count = COUNT.get();
+        if (count == null) {
+            return work;
+        }
+        return () -> {
+            AtomicInteger previous = COUNT.get();
+            COUNT.set(count);
+            try {
+                return work.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(AtomicInteger previous) {
+        if (previous == null) {
+            COUNT.remove();
+        } else {
+            COUNT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.auth.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sees every SQL statement Hibernate prepares. It counts them for the
+ * current HTTP request ({@link QueryCounter}) and replaces
+ * spring.jpa.show-sql with sampled logging: one in every {@code sampleRate}
+ * statements, and only while the {@code com.auth.sql.sampled} logger is at
+ * DEBUG. The level can be flipped at runtime through /actuator/loggers, so
+ * when logging is off the only cost is one level check.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger("com.auth.sql.sampled");
+
+    private final int sampleRate;
+    private final AtomicLong seen = new AtomicLong();
+
+    public SqlStatementInspector(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.increment();
+        if (log.isDebugEnabled() && seen.incrementAndGet() % sampleRate == 0) {
+            log.debug(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,185 @@
+package com.auth.report;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auth.cluster.LeaseService;
+import com.auth.dto.LoanFact;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.UtilizationRollup;
+import com.auth.repository.ArchivedBorrowRequestRepository;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.UtilizationRollupRepository;
+import com.auth.tenant.TenantContext;
+import com.auth.tenant.TenantDatabases;
+
+/**
+ * Rebuilds the utilization rollups from borrow history, live and archived,
+ * e.g. after the rollups were introduced. Both tables are read in id ranges
+ * on a small pool, each range in its own read-only transaction (so on a
+ * replica when there is one); the per-day counts are merged in memory, then
+ * written and compacted in one transaction per database. History does not
+ * record when a loan was issued, so loans count from their start date.
+ * Today's DAY rows are left alone: transitions keep counting into them.
+ */
+@Component
+public class UtilizationBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(UtilizationBackfill.class);
+    private static final List<BorrowStatus> LOANS = List.of(BorrowStatus.ISSUED, BorrowStatus.RETURNED);
+
+    private record DayKey(String tenantId, Long equipmentId, LocalDate day) {}
+
+    private final BorrowRequestRepository brRepo;
+    private final ArchivedBorrowRequestRepository archiveRepo;
+    private final UtilizationRollupRepository repo;
+    private final UtilizationCompactor compactor;
+    private final LeaseService leases;
+    private final TenantDatabases databases;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Value("${utilization.backfill.chunk-size:20000}")
+    private int chunkSize;
+
+    @Value("${utilization.backfill.threads:4}")
+    private int threads;
+
+    public UtilizationBackfill(BorrowRequestRepository brRepo, ArchivedBorrowRequestRepository archiveRepo,
+                               UtilizationRollupRepository repo, UtilizationCompactor compactor,
+                               LeaseService leases, TenantDatabases databases, PlatformTransactionManager txManager) {
+        this.brRepo = brRepo;
+        this.archiveRepo = archiveRepo;
+        this.repo = repo;
+        this.compactor = compactor;
+        this.leases = leases;
+        this.databases = databases;
+        this.tx = new TransactionTemplate(txManager);
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /** Runs a backfill in the background; false if one is already running on this node. */
+    public boolean start() {
+        if (!started.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofPlatform().name("utilization-backfill").start(() -> {
+            try {
+                run();
+            } catch (RuntimeException e) {
+                log.warn("Utilization backfill failed", e);
+            } finally {
+                started.set(false);
+            }
+        });
+        return true;
+    }
+
+    public void run() {
+        if (!leases.tryAcquire(UtilizationCompactor.LEASE, Duration.ofHours(6))) {
+            throw new IllegalStateException("A utilization backfill or compaction is running on another node");
+        }
+        LocalDate today = LocalDate.now(zone);
+        compactor.exclusively(() -> databases.forEach(database -> {
+            int days = backfill(today);
+            log.info("Backfilled {} item-days of utilization in database {}", days, database);
+        }));
+    }
+
+    private int backfill(LocalDate today) {
+        Map<DayKey, UtilizationRollup> days = new ConcurrentHashMap<>();
+        List<Supplier<List<LoanFact>>> chunks = new ArrayList<>();
+        long maxLive = brRepo.maxId();
+        for (long lo = 0; lo <= maxLive; lo += chunkSize) {
+            long from = lo;
+            chunks.add(() -> brRepo.findLoanFacts(from, from + chunkSize, LOANS));
+        }
+        long maxArchived = archiveRepo.maxId();
+        for (long lo = 0; lo <= maxArchived; lo += chunkSize) {
+            long from = lo;
+            chunks.add(() -> archiveRepo.findLoanFacts(from, from + chunkSize));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("utilization-backfill-", 0).factory());
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (Supplier<List<LoanFact>> chunk : chunks) {
+                running.add(pool.submit(TenantContext.wrap(() ->
+                        collect(readOnlyTx.execute(status -> chunk.get()), today, days))));
+            }
+            for (Future<?> f : running) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Utilization backfill interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Utilization backfill failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return tx.execute(status -> {
+            repo.deleteHistory(today);
+            repo.saveAll(days.values());
+            compactor.compactDatabase(today);
+            return days.size();
+        });
+    }
+
+    // counts one range locally, then merges: the shared map sees one merge per day and item
+    private void collect(List<LoanFact> loans, LocalDate today, Map<DayKey, UtilizationRollup> days) {
+        Map<DayKey, UtilizationRollup> local = new HashMap<>();
+        for (LoanFact loan : loans) {
+            if (loan.startDate() == null || loan.equipmentId() == null || loan.quantity() == null) {
+                continue;
+            }
+            if (loan.startDate().isBefore(today)) {
+                UtilizationRollup d = day(local, loan.tenantId(), loan.equipmentId(), loan.startDate());
+                d.setUnitsIssued(d.getUnitsIssued() + loan.quantity());
+                d.setLoansIssued(d.getLoansIssued() + 1);
+            }
+            if (loan.status() == BorrowStatus.RETURNED && loan.updatedAt() != null) {
+                LocalDate returned = LocalDate.ofInstant(loan.updatedAt(), zone);
+                if (returned.isBefore(today)) {
+                    UtilizationRollup d = day(local, loan.tenantId(), loan.equipmentId(), returned);
+                    d.setUnitsReturned(d.getUnitsReturned() + loan.quantity());
+                    d.setLoansReturned(d.getLoansReturned() + 1);
+                    d.setLoanDaysReturned(d.getLoanDaysReturned() + UtilizationRecorder.loanDays(loan.startDate(), returned));
+                    d.setOverdueReturned(d.getOverdueReturned() + (loan.overdue() ? 1 : 0));
+                }
+            }
+        }
+        local.forEach((key, counts) -> days.merge(key, counts, (a, b) -> {
+            a.addCounters(b);
+            return a;
+        }));
+    }
+
+    private static UtilizationRollup day(Map<DayKey, UtilizationRollup> days, String tenantId, Long equipmentId, LocalDate day) {
+        return days.computeIfAbsent(new DayKey(tenantId, equipmentId, day),
+                k -> UtilizationRollup.of(tenantId, equipmentId, null, UtilizationRollup.Granularity.DAY, day));
+    }
+}
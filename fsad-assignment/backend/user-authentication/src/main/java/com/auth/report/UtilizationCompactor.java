@@ -0,0 +1,241 @@
+package com.auth.report;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auth.cluster.LeaseService;
+import com.auth.dto.IssuedUnits;
+import com.auth.entity.UtilizationRollup;
+import com.auth.entity.UtilizationRollup.Granularity;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.UtilizationRollupRepository;
+import com.auth.tenant.TenantDatabases;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Nightly step of the utilization rollups. Transitions only count issues and
+ * returns on the item's DAY row; this works out how many units were out on
+ * each day since the last run by walking back from the units out now, so a
+ * day without transitions costs nothing to store, and folds the days into
+ * WEEK and MONTH rows per item and per category. A category's peak is taken
+ * from the daily sum over its items, not from the items' peaks. Each database
+ * is compacted in one transaction; finished DAY rows are kept for the
+ * retention and then dropped.
+ */
+@Component
+public class UtilizationCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(UtilizationCompactor.class);
+
+    // shared with the backfill, which ends with a compaction
+    static final String LEASE = "utilization-rollup";
+
+    private record Item(String tenantId, Long equipmentId) {}
+
+    // item rows are keyed without their category, which can change over time
+    private record PeriodKey(String tenantId, Long equipmentId, String category, Granularity granularity, LocalDate start) {
+
+        static PeriodKey of(UtilizationRollup r) {
+            return new PeriodKey(r.getTenantId(), r.getEquipmentId(), r.getEquipmentId() == null ? r.getCategory() : null,
+                    r.getGranularity(), r.getPeriodStart());
+        }
+    }
+
+    private final UtilizationRollupRepository repo;
+    private final BorrowRequestRepository brRepo;
+    private final EquipmentRepository equipmentRepo;
+    private final LeaseService leases;
+    private final TenantDatabases databases;
+    private final TransactionTemplate tx;
+    private final Timer timer;
+    private final ReentrantLock running = new ReentrantLock();
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Value("${utilization.day-retention:P35D}")
+    private Period retention;
+
+    public UtilizationCompactor(UtilizationRollupRepository repo, BorrowRequestRepository brRepo,
+                                EquipmentRepository equipmentRepo, LeaseService leases, TenantDatabases databases,
+                                PlatformTransactionManager txManager, MeterRegistry registry) {
+        this.repo = repo;
+        this.brRepo = brRepo;
+        this.equipmentRepo = equipmentRepo;
+        this.leases = leases;
+        this.databases = databases;
+        this.tx = new TransactionTemplate(txManager);
+        this.timer = Timer.builder("utilization.compaction").register(registry);
+    }
+
+    @Scheduled(cron = "${utilization.compaction-cron:0 30 1 * * *}") // nightly, on one node
+    public void compactNightly() {
+        if (!leases.tryAcquire(LEASE, Duration.ofHours(2)) || !running.tryLock()) {
+            return;
+        }
+        try {
+            compact(LocalDate.now(zone));
+        } finally {
+            running.unlock();
+        }
+    }
+
+    /** Compacts every database up to the day before {@code today}; returns the item-days folded. */
+    public int compact(LocalDate today) {
+        AtomicInteger total = new AtomicInteger();
+        databases.forEach(database -> {
+            Integer n = timer.record(() -> tx.execute(status -> compactDatabase(today)));
+            log.info("Compacted {} item-days of utilization in database {}", n, database);
+            total.addAndGet(n == null ? 0 : n);
+        });
+        return total.get();
+    }
+
+    // a backfill and a compaction never run at the same time on this node
+    void exclusively(Runnable work) {
+        running.lock();
+        try {
+            work.run();
+        } finally {
+            running.unlock();
+        }
+    }
+
+    // in the caller's transaction, in the database's root scope
+    int compactDatabase(LocalDate today) {
+        LocalDate yesterday = today.minusDays(1);
+        List<UtilizationRollup> open = repo.findOpenDays();
+        LocalDate last = repo.findLastCompactedDay();
+        LocalDate from = last != null ? last.plusDays(1) : open.stream()
+                .map(UtilizationRollup::getPeriodStart)
+                .filter(d -> d.isBefore(today))
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        if (from == null || from.isAfter(yesterday)) {
+            return 0;
+        }
+
+        Map<Item, Map<LocalDate, UtilizationRollup>> days = new HashMap<>();
+        for (UtilizationRollup r : open) {
+            days.computeIfAbsent(new Item(r.getTenantId(), r.getEquipmentId()), i -> new HashMap<>()).put(r.getPeriodStart(), r);
+        }
+        Map<Item, Long> out = new HashMap<>();
+        for (IssuedUnits u : brRepo.sumIssuedUnits()) {
+            Item item = new Item(u.tenantId(), u.equipmentId());
+            out.put(item, u.quantity());
+            days.computeIfAbsent(item, i -> new HashMap<>());
+        }
+        Map<Long, String> categories = new HashMap<>();
+        equipmentRepo.findAllById(days.keySet().stream().map(Item::equipmentId).distinct().toList())
+                .forEach(e -> categories.put(e.getId(), e.getCategory()));
+
+        // stray open rows (below) can be older than from
+        LocalDate earliest = open.stream().map(UtilizationRollup::getPeriodStart)
+                .filter(d -> d.isBefore(from))
+                .min(Comparator.naturalOrder())
+                .orElse(from);
+        Map<PeriodKey, UtilizationRollup> periods = new HashMap<>();
+        for (UtilizationRollup r : repo.findPeriodsFrom(weekStart(earliest), earliest.withDayOfMonth(1))) {
+            periods.put(PeriodKey.of(r), r);
+        }
+        // per category and day, folded once every item is in
+        Map<PeriodKey, UtilizationRollup> categoryDays = new HashMap<>();
+
+        int folded = 0;
+        for (Map.Entry<Item, Map<LocalDate, UtilizationRollup>> e : days.entrySet()) {
+            Item item = e.getKey();
+            Map<LocalDate, UtilizationRollup> rows = e.getValue();
+            String category = categories.get(item.equipmentId());
+            // units out at the end of each day, from now backwards: undo each day's issues and returns
+            long end = out.getOrDefault(item, 0L);
+            UtilizationRollup todays = rows.get(today);
+            if (todays != null) {
+                end -= todays.getUnitsIssued() - todays.getUnitsReturned();
+            }
+            for (LocalDate d = yesterday; !d.isBefore(from); d = d.minusDays(1)) {
+                UtilizationRollup row = rows.get(d);
+                long during = Math.max(0, end + (row == null ? 0 : row.getUnitsReturned()));
+                end = during - (row == null ? 0 : row.getUnitsIssued());
+                if (row == null && during > 0 && d.equals(yesterday)) {
+                    // keeps the last compacted day on record while units are out
+                    row = repo.save(UtilizationRollup.of(item.tenantId(), item.equipmentId(), category, Granularity.DAY, d));
+                }
+                if (row == null && during == 0) {
+                    continue;
+                }
+                if (row != null) {
+                    row.setCategory(category);
+                    row.setUnitDays(during);
+                    row.setPeakUnits((int) during);
+                    row.setCompacted(true);
+                }
+                fold(periods, item.tenantId(), item.equipmentId(), category, d, during, row);
+                addToCategoryDay(categoryDays, item.tenantId(), category, d, during, row);
+                folded++;
+            }
+            // counted after the run that compacted their day had read them (a transition across midnight)
+            for (UtilizationRollup row : rows.values()) {
+                if (!row.isCompacted() && row.getPeriodStart().isBefore(from)) {
+                    row.setCompacted(true);
+                    fold(periods, item.tenantId(), item.equipmentId(), category, row.getPeriodStart(), 0, row);
+                    addToCategoryDay(categoryDays, item.tenantId(), category, row.getPeriodStart(), 0, row);
+                }
+            }
+        }
+        categoryDays.forEach((key, sum) ->
+                fold(periods, key.tenantId(), null, key.category(), key.start(), sum.getUnitDays(), sum));
+
+        repo.saveAll(periods.values());
+        repo.deleteCompactedDaysBefore(today.minus(retention));
+        return folded;
+    }
+
+    private static void addToCategoryDay(Map<PeriodKey, UtilizationRollup> categoryDays, String tenantId,
+                                         String category, LocalDate day, long during, UtilizationRollup counters) {
+        UtilizationRollup sum = categoryDays.computeIfAbsent(new PeriodKey(tenantId, null, category, Granularity.DAY, day),
+                k -> new UtilizationRollup());
+        sum.setUnitDays(sum.getUnitDays() + during);
+        if (counters != null) {
+            sum.addCounters(counters);
+        }
+    }
+
+    private static void fold(Map<PeriodKey, UtilizationRollup> periods, String tenantId, Long equipmentId,
+                             String category, LocalDate day, long during, UtilizationRollup counters) {
+        for (Granularity g : List.of(Granularity.WEEK, Granularity.MONTH)) {
+            LocalDate start = g == Granularity.WEEK ? weekStart(day) : day.withDayOfMonth(1);
+            UtilizationRollup r = periods.computeIfAbsent(
+                    new PeriodKey(tenantId, equipmentId, equipmentId == null ? category : null, g, start),
+                    k -> UtilizationRollup.of(tenantId, equipmentId, category, g, start));
+            r.setCategory(category);
+            r.setUnitDays(r.getUnitDays() + during);
+            r.setPeakUnits((int) Math.max(r.getPeakUnits(), during));
+            if (counters != null) {
+                r.addCounters(counters);
+            }
+        }
+    }
+
+    static LocalDate weekStart(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
@@ -0,0 +1,42 @@
+package com.auth.report;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.auth.entity.BorrowRequest;
+import com.auth.repository.UtilizationRollupRepository;
+
+/**
+ * Counts issues and returns into the item's DAY rollup row, inside the
+ * transaction of the transition, so a rolled-back transition is never
+ * counted and a committed one always is.
+ */
+@Component
+public class UtilizationRecorder {
+
+    private final UtilizationRollupRepository repo;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public UtilizationRecorder(UtilizationRollupRepository repo) {
+        this.repo = repo;
+    }
+
+    public void issued(BorrowRequest br) {
+        repo.addToDay(br.getTenantId(), br.getEquipment().getId(), LocalDate.now(zone),
+                br.getQuantityRequested(), 1, 0, 0, 0, 0);
+    }
+
+    public void returned(BorrowRequest br) {
+        LocalDate today = LocalDate.now(zone);
+        repo.addToDay(br.getTenantId(), br.getEquipment().getId(), today,
+                0, 0, br.getQuantityRequested(), 1, loanDays(br.getStartDate(), today), br.getOverDue() ? 1 : 0);
+    }
+
+    // from the booked start date, both ends counted
+    static long loanDays(LocalDate start, LocalDate returned) {
+        return Math.max(1, ChronoUnit.DAYS.between(start, returned) + 1);
+    }
+}
@@ -0,0 +1,72 @@
+package com.auth.report;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.auth.dto.UtilizationReportRow;
+import com.auth.entity.UtilizationRollup;
+import com.auth.entity.UtilizationRollup.Granularity;
+import com.auth.repository.UtilizationRollupRepository;
+
+/**
+ * Utilization per item or category, read straight from the rollups: one
+ * indexed range scan over a tenant's periods, no borrow_request rows. Figures
+ * are as of the last compaction; the current day only has its counts.
+ */
+@Service
+public class UtilizationReportService {
+
+    private final UtilizationRollupRepository repo;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public UtilizationReportService(UtilizationRollupRepository repo) {
+        this.repo = repo;
+    }
+
+    @Transactional(readOnly = true)
+    public List<UtilizationReportRow> utilization(Granularity granularity, boolean byCategory, LocalDate from, LocalDate to) {
+        if (byCategory && granularity == Granularity.DAY) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Category utilization is kept per week and month");
+        }
+        LocalDate end = to != null ? to : LocalDate.now(zone);
+        LocalDate start = periodStart(granularity, from != null ? from : defaultFrom(granularity, end));
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        List<UtilizationRollup> rows = byCategory
+                ? repo.findCategoryPeriods(granularity, start, end)
+                : repo.findItemPeriods(granularity, start, end);
+        return rows.stream().map(UtilizationReportService::toRow).toList();
+    }
+
+    private static UtilizationReportRow toRow(UtilizationRollup r) {
+        int returned = r.getLoansReturned();
+        return new UtilizationReportRow(r.getPeriodStart(), r.getEquipmentId(), r.getCategory(),
+                r.getUnitDays(), r.getPeakUnits(), r.getLoansIssued(), returned,
+                returned == 0 ? null : (double) r.getLoanDaysReturned() / returned,
+                returned == 0 ? null : (double) r.getOverdueReturned() / returned);
+    }
+
+    private static LocalDate defaultFrom(Granularity granularity, LocalDate to) {
+        return switch (granularity) {
+            case DAY -> to.minusDays(30);
+            case WEEK -> to.minusWeeks(12);
+            case MONTH -> to.minusMonths(12);
+        };
+    }
+
+    // a range starting mid-period still includes that period
+    private static LocalDate periodStart(Granularity granularity, LocalDate day) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> UtilizationCompactor.weekStart(day);
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+}
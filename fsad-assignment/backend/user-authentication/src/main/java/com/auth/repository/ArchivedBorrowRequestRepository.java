@@ -0,0 +1,54 @@
+package com.auth.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.auth.dto.LoanExportRow;
+import com.auth.dto.LoanFact;
+import com.auth.entity.ArchivedBorrowRequest;
+
+public interface ArchivedBorrowRequestRepository extends JpaRepository<ArchivedBorrowRequest, Long> {
+
+    List<ArchivedBorrowRequest> findByUserId(Long userId);
+
+    // copies rows server-side; the caller deletes them from borrow_request in the same transaction.
+    // Native SQL is not tenant-filtered: the ids must come from a (filtered) query.
+    @Modifying
+    @Query(value = """
+      INSERT INTO borrow_request_archive (id, tenant_id, user_id, equipment_id, kit_id, quantity_requested, start_date,
+          end_date, status, created_at, updated_at, admin_comment, overdue, change_seq, archived_at)
+      SELECT id, tenant_id, user_id, equipment_id, kit_id, quantity_requested, start_date,
+          end_date, status, created_at, updated_at, admin_comment, overdue, change_seq, :archivedAt
+      FROM borrow_request WHERE id IN (:ids)
+      """, nativeQuery = true)
+    int copyFromLive(@Param("ids") List<Long> ids, @Param("archivedAt") Instant archivedAt);
+
+    // keyset paging for the CSV export
+    @Query("""
+      SELECT new com.auth.dto.LoanExportRow(a.id, a.userId, a.equipmentId, a.quantityRequested, a.startDate,
+          a.endDate, a.status, a.createdAt, a.updatedAt, a.overdue, true)
+      FROM ArchivedBorrowRequest a
+      WHERE a.startDate <= :to AND a.endDate >= :from AND a.id > :afterId
+      ORDER BY a.id
+      """)
+    List<LoanExportRow> findForExport(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                      @Param("afterId") long afterId, Limit limit);
+
+    @Query("""
+      SELECT new com.auth.dto.LoanFact(a.tenantId, a.equipmentId, a.quantityRequested, a.startDate,
+          a.status, a.updatedAt, a.overdue)
+      FROM ArchivedBorrowRequest a
+      WHERE a.id >= :fromId AND a.id < :toId AND a.status = com.auth.entity.BorrowStatus.RETURNED
+      """)
+    List<LoanFact> findLoanFacts(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("SELECT COALESCE(MAX(a.id), 0) FROM ArchivedBorrowRequest a")
+    long maxId();
+}
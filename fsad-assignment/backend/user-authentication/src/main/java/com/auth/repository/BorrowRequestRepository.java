@@ -1,15 +1,31 @@
 package com.auth.repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.auth.dto.EquipmentUsage;
+import com.auth.dto.ExpiryCandidate;
+import com.auth.dto.IssuedUnits;
+import com.auth.dto.LoanFact;
+import com.auth.dto.LoanExportRow;
+import com.auth.dto.PendingRequest;
+import com.auth.dto.ReservedLoan;
 import com.auth.entity.BorrowRequest;
 import com.auth.entity.BorrowStatus;
 
+import jakarta.persistence.LockModeType;
+
 public interface BorrowRequestRepository extends JpaRepository<BorrowRequest, Long> {
 
     @Query("""
@@ -23,8 +39,195 @@ public interface BorrowRequestRepository extends JpaRepository<BorrowRequest, Lo
                                      @Param("startDate") LocalDate startDate,
                                      @Param("endDate") LocalDate endDate);
 
+    // sumOverlappingQuantities for several items in one round-trip; items with no usage are absent
+    @Query("""
+      SELECT new com.auth.dto.EquipmentUsage(br.equipment.id, SUM(br.quantityRequested))
+      FROM BorrowRequest br
+      WHERE br.equipment.id IN :equipmentIds
+        AND br.status IN ('APPROVED','ISSUED')
+        AND NOT (br.endDate < :startDate OR br.startDate > :endDate)
+      GROUP BY br.equipment.id
+      """)
+    List<EquipmentUsage> sumOverlappingQuantitiesByEquipment(@Param("equipmentIds") Collection<Long> equipmentIds,
+                                                             @Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate);
+
+    @EntityGraph(attributePaths = "equipment")
+    @Query("SELECT br FROM BorrowRequest br WHERE br.kitId = :kitId ORDER BY br.equipment.id")
+    List<BorrowRequest> findKitLines(@Param("kitId") Long kitId);
+
+    @Query("SELECT DISTINCT br.equipment.id FROM BorrowRequest br WHERE br.kitId = :kitId")
+    List<Long> findKitEquipmentIds(@Param("kitId") Long kitId);
+
+    @EntityGraph(attributePaths = "equipment")
+    @Query("SELECT br FROM BorrowRequest br WHERE br.kitId IN :kitIds ORDER BY br.kitId, br.equipment.id")
+    List<BorrowRequest> findKitLinesIn(@Param("kitIds") Collection<Long> kitIds);
+
+    // an approval locks the item first and only then reads the request, with a lock,
+    // so an expiry or cancellation that committed in between is not overwritten
+    @Query("SELECT br.equipment.id FROM BorrowRequest br WHERE br.id = :id")
+    Optional<Long> findEquipmentIdById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<BorrowRequest> findForUpdateById(Long id);
+
+    // waitlist candidates, locked in id order like the expiry batch
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT br FROM BorrowRequest br WHERE br.id IN :ids ORDER BY br.id")
+    List<BorrowRequest> findAllForUpdate(@Param("ids") Collection<Long> ids);
+
+    // reservations that still count against availability, for the in-memory catalog
+    @Query("""
+      SELECT new com.auth.dto.ReservedLoan(br.equipment.id, br.quantityRequested, br.startDate, br.endDate)
+      FROM BorrowRequest br
+      WHERE br.status IN :statuses AND br.endDate >= :from
+      """)
+    List<ReservedLoan> findReservations(@Param("statuses") List<BorrowStatus> statuses,
+                                        @Param("from") LocalDate from);
+
+    @Query("""
+      SELECT new com.auth.dto.ReservedLoan(br.equipment.id, br.quantityRequested, br.startDate, br.endDate)
+      FROM BorrowRequest br
+      WHERE br.equipment.id = :equipmentId AND br.status IN :statuses AND br.endDate >= :from
+      """)
+    List<ReservedLoan> findReservationsFor(@Param("equipmentId") Long equipmentId,
+                                           @Param("statuses") List<BorrowStatus> statuses,
+                                           @Param("from") LocalDate from);
+
+    // waitlist contents, rebuilt at startup and periodically
+    @Query("""
+      SELECT new com.auth.dto.PendingRequest(br.id, br.equipment.id, br.createdAt)
+      FROM BorrowRequest br
+      WHERE br.status = com.auth.entity.BorrowStatus.PENDING AND br.kitId IS NULL
+      """)
+    List<PendingRequest> findPendingRequests();
+
+    // expiry index contents, rebuilt at startup and periodically; kit lines expire with their kit
+    @Query("""
+      SELECT new com.auth.dto.ExpiryCandidate(br.id, br.status, br.createdAt, br.startDate, br.endDate)
+      FROM BorrowRequest br
+      WHERE br.status IN :statuses AND br.kitId IS NULL
+      """)
+    List<ExpiryCandidate> findExpiryCandidates(@Param("statuses") List<BorrowStatus> statuses);
+
+    @Query("""
+      SELECT new com.auth.dto.ExpiryCandidate(br.id, br.status, br.createdAt, br.startDate, br.endDate)
+      FROM BorrowRequest br
+      WHERE br.id IN :ids AND br.status IN :statuses AND br.kitId IS NULL
+      """)
+    List<ExpiryCandidate> findExpiryCandidatesIn(@Param("statuses") List<BorrowStatus> statuses,
+                                                 @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT br.equipment.id FROM BorrowRequest br WHERE br.id IN :ids ORDER BY br.equipment.id")
+    List<Long> findEquipmentIdsIn(@Param("ids") Collection<Long> ids);
+
+    // the requests among ids that are past their TTL (see ExpiryCutoffs), locked
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+      SELECT br FROM BorrowRequest br
+      WHERE br.id IN :ids AND br.kitId IS NULL
+        AND ((br.status = com.auth.entity.BorrowStatus.PENDING
+              AND (br.createdAt <= :pendingCreatedBy OR br.endDate < :pendingEndedBefore))
+          OR (br.status = com.auth.entity.BorrowStatus.APPROVED AND br.startDate <= :approvedStartedBy))
+      ORDER BY br.id
+      """)
+    List<BorrowRequest> lockExpired(@Param("ids") Collection<Long> ids,
+                                    @Param("pendingCreatedBy") Instant pendingCreatedBy,
+                                    @Param("pendingEndedBefore") LocalDate pendingEndedBefore,
+                                    @Param("approvedStartedBy") LocalDate approvedStartedBy);
+
+    // state transitions return the request with its equipment; loaded up front
+    // because the session is closed by the time the response is serialized
+    @EntityGraph(attributePaths = "equipment")
+    Optional<BorrowRequest> findWithEquipmentById(Long id);
+
+    // list finders fetch the equipment in the same query; the lists are
+    // serialized with it, so a lazy load would cost one query per row
+    @EntityGraph(attributePaths = "equipment")
     List<BorrowRequest> findByUserId(Long userId);
+    @EntityGraph(attributePaths = "equipment")
     List<BorrowRequest> findByStatus(BorrowStatus status);
+    @EntityGraph(attributePaths = "equipment")
     List<BorrowRequest> findByStatusIn(List<BorrowStatus> statuses);
+    @EntityGraph(attributePaths = "equipment")
     List<BorrowRequest> findByStatusAndOverdueFalseAndEndDateBefore(BorrowStatus status, LocalDate date);
+
+    // overdue candidates in one node's shard (id % shards = shard)
+    @EntityGraph(attributePaths = "equipment")
+    @Query("""
+      SELECT br FROM BorrowRequest br
+      WHERE br.status = :status AND br.overdue = false AND br.endDate < :date
+        AND MOD(br.id, :shards) = :shard
+      """)
+    List<BorrowRequest> findOverdueInShard(@Param("status") BorrowStatus status,
+                                           @Param("date") LocalDate date,
+                                           @Param("shards") int shards,
+                                           @Param("shard") int shard);
+
+    // change feed: rows written after a cursor, oldest first; served by the change_seq indexes
+    @EntityGraph(attributePaths = "equipment")
+    @Query("SELECT br FROM BorrowRequest br WHERE br.userId = :userId AND br.changeSeq > :since ORDER BY br.changeSeq")
+    List<BorrowRequest> findUserChanges(@Param("userId") Long userId, @Param("since") long since, Limit limit);
+
+    @EntityGraph(attributePaths = "equipment")
+    @Query("SELECT br FROM BorrowRequest br WHERE br.changeSeq > :since ORDER BY br.changeSeq")
+    List<BorrowRequest> findChanges(@Param("since") long since, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(br.changeSeq), 0) FROM BorrowRequest br")
+    long maxChangeSeq();
+
+    @Modifying
+    @Query("UPDATE BorrowRequest br SET br.changeSeq = :seq WHERE br.id = :id")
+    int stampChangeSeq(@Param("id") Long id, @Param("seq") long seq);
+
+    // closed rows past the archive horizon, oldest ids first
+    @Query("""
+      SELECT br.id FROM BorrowRequest br
+      WHERE br.status IN :statuses AND COALESCE(br.updatedAt, br.createdAt) < :cutoff
+      ORDER BY br.id
+      """)
+    List<Long> findArchivableIds(@Param("statuses") List<BorrowStatus> statuses,
+                                 @Param("cutoff") Instant cutoff, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM BorrowRequest br WHERE br.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    // keyset paging for the CSV export; equipment.id is the foreign key column, no join
+    @Query("""
+      SELECT new com.auth.dto.LoanExportRow(br.id, br.userId, br.equipment.id, br.quantityRequested, br.startDate,
+          br.endDate, br.status, br.createdAt, br.updatedAt, br.overdue, false)
+      FROM BorrowRequest br
+      WHERE br.startDate <= :to AND br.endDate >= :from AND br.id > :afterId
+      ORDER BY br.id
+      """)
+    List<LoanExportRow> findForExport(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                      @Param("afterId") long afterId, Limit limit);
+
+    // utilization backfill: one id range per call, so ranges can be read in parallel
+    @Query("""
+      SELECT new com.auth.dto.LoanFact(br.tenantId, br.equipment.id, br.quantityRequested, br.startDate,
+          br.status, br.updatedAt, br.overdue)
+      FROM BorrowRequest br
+      WHERE br.id >= :fromId AND br.id < :toId AND br.status IN :statuses
+      """)
+    List<LoanFact> findLoanFacts(@Param("fromId") long fromId, @Param("toId") long toId,
+                                 @Param("statuses") List<BorrowStatus> statuses);
+
+    @Query("SELECT COALESCE(MAX(br.id), 0) FROM BorrowRequest br")
+    long maxId();
+
+    // units out right now; the utilization compaction works back from here
+    @Query("""
+      SELECT new com.auth.dto.IssuedUnits(br.tenantId, br.equipment.id, SUM(br.quantityRequested))
+      FROM BorrowRequest br
+      WHERE br.status = com.auth.entity.BorrowStatus.ISSUED
+      GROUP BY br.tenantId, br.equipment.id
+      """)
+    List<IssuedUnits> sumIssuedUnits();
+
+    // 0 when another node already flagged it, so only one notification is written
+    @Modifying
+    @Query("UPDATE BorrowRequest br SET br.overdue = true WHERE br.id = :id AND br.overdue = false")
+    int markOverdueIfNotYet(@Param("id") Long id);
 }
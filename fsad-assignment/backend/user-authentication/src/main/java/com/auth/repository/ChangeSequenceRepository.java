@@ -0,0 +1,23 @@
+package com.auth.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.auth.entity.ChangeSequence;
+
+public interface ChangeSequenceRepository extends JpaRepository<ChangeSequence, String> {
+
+    // row lock held until the caller's transaction commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying(flushAutomatically = true, clearAutomatically = false)
+    @Query("UPDATE ChangeSequence s SET s.seqValue = s.seqValue + :count WHERE s.name = :name")
+    int increment(@Param("name") String name, @Param("count") long count);
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("SELECT s.seqValue FROM ChangeSequence s WHERE s.name = :name")
+    long current(@Param("name") String name);
+}
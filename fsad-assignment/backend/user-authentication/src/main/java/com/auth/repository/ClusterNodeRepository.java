@@ -0,0 +1,31 @@
+package com.auth.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.auth.entity.ClusterNode;
+
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ClusterNode n SET n.lastHeartbeat = :now WHERE n.nodeId = :nodeId")
+    int heartbeat(@Param("nodeId") String nodeId, @Param("now") Instant now);
+
+    // ordered so every node derives the same shard numbering; read-write so it
+    // is answered by the primary, never a lagging replica
+    @Transactional
+    @Query("SELECT n.nodeId FROM ClusterNode n WHERE n.lastHeartbeat >= :since ORDER BY n.nodeId")
+    List<String> findLiveNodeIds(@Param("since") Instant since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ClusterNode n WHERE n.lastHeartbeat < :cutoff")
+    int deleteStale(@Param("cutoff") Instant cutoff);
+}
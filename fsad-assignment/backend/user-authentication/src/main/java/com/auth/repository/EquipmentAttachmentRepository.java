@@ -0,0 +1,32 @@
+package com.auth.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.auth.entity.EquipmentAttachment;
+
+public interface EquipmentAttachmentRepository extends JpaRepository<EquipmentAttachment, Long> {
+
+    List<EquipmentAttachment> findByEquipmentIdOrderById(Long equipmentId);
+
+    Optional<EquipmentAttachment> findByIdAndEquipmentId(Long id, Long equipmentId);
+
+    boolean existsBySha256(String sha256);
+
+    // images still waiting for a thumbnail (e.g. the node restarted mid-way)
+    List<EquipmentAttachment> findByThumbnailSha256IsNullAndContentTypeStartingWith(String prefix);
+
+    // another upload of the same bytes may already have one
+    Optional<EquipmentAttachment> findFirstBySha256AndThumbnailSha256IsNotNull(String sha256);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EquipmentAttachment a SET a.thumbnailSha256 = :thumb WHERE a.sha256 = :sha AND a.thumbnailSha256 IS NULL")
+    int setThumbnail(@Param("sha") String sha256, @Param("thumb") String thumbnailSha256);
+}
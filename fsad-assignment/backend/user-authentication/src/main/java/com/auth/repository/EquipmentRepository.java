@@ -1,12 +1,29 @@
-package com.auth.repository;
-
-
-import java.util.Optional;
-
-import org.springframework.data.jpa.repository.JpaRepository;
-
-import com.auth.entity.Equipment;
-
-public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
-    Optional<Equipment> findByNameIgnoreCase(String name);
-}
+package com.auth.repository;
+
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.auth.entity.Equipment;
+
+import jakarta.persistence.LockModeType;
+
+public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
+    Optional<Equipment> findByNameIgnoreCase(String name);
+
+    // SELECT ... FOR UPDATE: approvals of one item check availability one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Equipment> findForUpdateById(Long id);
+
+    // several items in one statement; rows are locked in primary key order, so two kits
+    // sharing items always lock them in the same order and cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Equipment e WHERE e.id IN :ids ORDER BY e.id")
+    List<Equipment> findAllForUpdate(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,56 @@
+package com.auth.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.auth.dto.ExpiryCandidate;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.KitRequest;
+
+import jakarta.persistence.LockModeType;
+
+public interface KitRequestRepository extends JpaRepository<KitRequest, Long> {
+    List<KitRequest> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    // header first, then its equipment: two transitions of one kit never interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<KitRequest> findForUpdateById(Long id);
+
+    @Query("""
+      SELECT new com.auth.dto.ExpiryCandidate(k.id, k.status, k.createdAt, k.startDate, k.endDate)
+      FROM KitRequest k
+      WHERE k.status IN :statuses
+      """)
+    List<ExpiryCandidate> findExpiryCandidates(@Param("statuses") List<BorrowStatus> statuses);
+
+    @Query("""
+      SELECT new com.auth.dto.ExpiryCandidate(k.id, k.status, k.createdAt, k.startDate, k.endDate)
+      FROM KitRequest k
+      WHERE k.id IN :ids AND k.status IN :statuses
+      """)
+    List<ExpiryCandidate> findExpiryCandidatesIn(@Param("statuses") List<BorrowStatus> statuses,
+                                                 @Param("ids") Collection<Long> ids);
+
+    // headers past their TTL (see ExpiryCutoffs), locked in id order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+      SELECT k FROM KitRequest k
+      WHERE k.id IN :ids
+        AND ((k.status = com.auth.entity.BorrowStatus.PENDING
+              AND (k.createdAt <= :pendingCreatedBy OR k.endDate < :pendingEndedBefore))
+          OR (k.status = com.auth.entity.BorrowStatus.APPROVED AND k.startDate <= :approvedStartedBy))
+      ORDER BY k.id
+      """)
+    List<KitRequest> lockExpired(@Param("ids") Collection<Long> ids,
+                                 @Param("pendingCreatedBy") Instant pendingCreatedBy,
+                                 @Param("pendingEndedBefore") LocalDate pendingEndedBefore,
+                                 @Param("approvedStartedBy") LocalDate approvedStartedBy);
+}
@@ -0,0 +1,31 @@
+package com.auth.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.auth.entity.SchedulerLease;
+
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    // takes the lease if it expired or is already ours; 0 means another node holds it
+    @Transactional
+    @Modifying
+    @Query("""
+      UPDATE SchedulerLease l SET l.owner = :owner, l.expiresAt = :expiresAt
+      WHERE l.name = :name AND (l.expiresAt < :now OR l.owner = :owner)
+      """)
+    int tryTake(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") Instant now,
+                @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.expiresAt = :now WHERE l.owner = :owner")
+    int releaseAll(@Param("owner") String owner, @Param("now") Instant now);
+}
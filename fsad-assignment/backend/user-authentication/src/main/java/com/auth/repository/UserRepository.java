@@ -3,11 +3,29 @@ package com.auth.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.auth.entity.User;
 
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // runs on every authenticated request; only coalesced for a second (SingleFlightConfig),
+    // never query-cached, since the cache would not see writes made on other nodes.
+    // Read-write so it goes to the primary: a lagging replica would 401 a user who just signed up
+    @Transactional
     Optional<User> findByEmail(String email);
+
+    @Transactional
     boolean existsByEmail(String email);
+
+    // compare-and-set so a concurrent password change is never overwritten by a rehash
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePasswordIfUnchanged(@Param("id") Long id,
+                                  @Param("oldHash") String oldHash,
+                                  @Param("newHash") String newHash);
 }
@@ -0,0 +1,88 @@
+package com.auth.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.auth.entity.UtilizationRollup;
+
+public interface UtilizationRollupRepository extends JpaRepository<UtilizationRollup, Long> {
+
+    // one statement per transition; concurrent issues of an item queue on its DAY row only.
+    // Native SQL is not tenant-filtered: the tenant is passed explicitly.
+    @Modifying
+    @Query(value = """
+      INSERT INTO utilization_rollup (tenant_id, equipment_id, granularity, period_start, units_issued, loans_issued,
+          units_returned, loans_returned, loan_days_returned, overdue_returned, unit_days, peak_units, compacted)
+      VALUES (:tenantId, :equipmentId, 'DAY', :day, :unitsIssued, :loansIssued,
+          :unitsReturned, :loansReturned, :loanDays, :overdue, 0, 0, false)
+      ON DUPLICATE KEY UPDATE
+          units_issued = units_issued + :unitsIssued,
+          loans_issued = loans_issued + :loansIssued,
+          units_returned = units_returned + :unitsReturned,
+          loans_returned = loans_returned + :loansReturned,
+          loan_days_returned = loan_days_returned + :loanDays,
+          overdue_returned = overdue_returned + :overdue
+      """, nativeQuery = true)
+    int addToDay(@Param("tenantId") String tenantId, @Param("equipmentId") Long equipmentId,
+                 @Param("day") LocalDate day, @Param("unitsIssued") int unitsIssued,
+                 @Param("loansIssued") int loansIssued, @Param("unitsReturned") int unitsReturned,
+                 @Param("loansReturned") int loansReturned, @Param("loanDays") long loanDays,
+                 @Param("overdue") int overdue);
+
+    @Query("""
+      SELECT r FROM UtilizationRollup r
+      WHERE r.granularity = com.auth.entity.UtilizationRollup.Granularity.DAY AND r.compacted = false
+      """)
+    List<UtilizationRollup> findOpenDays();
+
+    // the last day compaction went through; items out on loan get a row for it every night
+    @Query("""
+      SELECT MAX(r.periodStart) FROM UtilizationRollup r
+      WHERE r.granularity = com.auth.entity.UtilizationRollup.Granularity.DAY AND r.compacted = true
+      """)
+    LocalDate findLastCompactedDay();
+
+    @Query("""
+      SELECT r FROM UtilizationRollup r
+      WHERE (r.granularity = com.auth.entity.UtilizationRollup.Granularity.WEEK AND r.periodStart >= :week)
+         OR (r.granularity = com.auth.entity.UtilizationRollup.Granularity.MONTH AND r.periodStart >= :month)
+      """)
+    List<UtilizationRollup> findPeriodsFrom(@Param("week") LocalDate week, @Param("month") LocalDate month);
+
+    @Modifying
+    @Query("""
+      DELETE FROM UtilizationRollup r
+      WHERE r.granularity = com.auth.entity.UtilizationRollup.Granularity.DAY
+        AND r.compacted = true AND r.periodStart < :before
+      """)
+    int deleteCompactedDaysBefore(@Param("before") LocalDate before);
+
+    // what a backfill rebuilds: everything but today's DAY rows, which transitions keep writing to
+    @Modifying
+    @Query("""
+      DELETE FROM UtilizationRollup r
+      WHERE r.granularity <> com.auth.entity.UtilizationRollup.Granularity.DAY OR r.periodStart < :today
+      """)
+    int deleteHistory(@Param("today") LocalDate today);
+
+    @Query("""
+      SELECT r FROM UtilizationRollup r
+      WHERE r.granularity = :granularity AND r.periodStart BETWEEN :from AND :to AND r.equipmentId IS NOT NULL
+      ORDER BY r.periodStart, r.equipmentId
+      """)
+    List<UtilizationRollup> findItemPeriods(@Param("granularity") UtilizationRollup.Granularity granularity,
+                                            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("""
+      SELECT r FROM UtilizationRollup r
+      WHERE r.granularity = :granularity AND r.periodStart BETWEEN :from AND :to AND r.equipmentId IS NULL
+      ORDER BY r.periodStart, r.category
+      """)
+    List<UtilizationRollup> findCategoryPeriods(@Param("granularity") UtilizationRollup.Granularity granularity,
+                                                @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,41 @@
+package com.auth.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Who may read /actuator/prometheus: admins, and the scraper with the basic
+ * credentials in monitoring.prometheus.scrape-user / scrape-password. The
+ * meters name URIs, tenants, pool and bulkhead state and per-item waitlist
+ * depth, so they are not public. No password configured = admins only.
+ */
+@Component
+public class PrometheusScrapeAccess {
+
+    private final byte[] expected;
+
+    public PrometheusScrapeAccess(@Value("${monitoring.prometheus.scrape-user:prometheus}") String user,
+                                  @Value("${monitoring.prometheus.scrape-password:}") String password) {
+        this.expected = password.isEmpty() ? null
+                : ("Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8)))
+                        .getBytes(StandardCharsets.UTF_8);
+    }
+
+    public boolean allows(Authentication authentication, HttpServletRequest request) {
+        if (authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()))) {
+            return true;
+        }
+        String header = request.getHeader("Authorization");
+        // constant time, so the password cannot be guessed byte by byte
+        return expected != null && header != null
+                && MessageDigest.isEqual(expected, header.getBytes(StandardCharsets.UTF_8));
+    }
+}
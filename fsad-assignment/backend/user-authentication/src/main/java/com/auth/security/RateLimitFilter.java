@@ -0,0 +1,121 @@
+package com.auth.security;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.auth.tenant.TenantContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control in front of the controllers. Runs after {@link JwtAuthFilter},
+ * so authenticated callers are limited per email with a budget that depends on
+ * their role, and everyone else per client IP. Login and signup get their own
+ * strict per-IP limit because each call costs a BCrypt hash.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final boolean trustForwardedFor;
+    private final RateLimiter limiter;
+    private final RateLimiter.Limit authLimit;
+    private final RateLimiter.Limit anonymousLimit;
+    private final RateLimiter.Limit studentLimit;
+    private final RateLimiter.Limit staffLimit;
+    private final MeterRegistry registry;
+
+    public RateLimitFilter(@Value("${ratelimit.enabled:true}") boolean enabled,
+                           @Value("${ratelimit.trust-forwarded-for:false}") boolean trustForwardedFor,
+                           @Value("${ratelimit.max-keys:100000}") int maxKeys,
+                           @Value("${ratelimit.auth.per-second:2}") double authRate,
+                           @Value("${ratelimit.auth.burst:20}") int authBurst,
+                           @Value("${ratelimit.anonymous.per-second:5}") double anonymousRate,
+                           @Value("${ratelimit.anonymous.burst:20}") int anonymousBurst,
+                           @Value("${ratelimit.student.per-second:10}") double studentRate,
+                           @Value("${ratelimit.student.burst:40}") int studentBurst,
+                           @Value("${ratelimit.staff.per-second:50}") double staffRate,
+                           @Value("${ratelimit.staff.burst:200}") int staffBurst,
+                           MeterRegistry registry) {
+        this.enabled = enabled;
+        this.trustForwardedFor = trustForwardedFor;
+        this.limiter = new RateLimiter(maxKeys);
+        this.authLimit = new RateLimiter.Limit("auth", authRate, authBurst);
+        this.anonymousLimit = new RateLimiter.Limit("anonymous", anonymousRate, anonymousBurst);
+        this.studentLimit = new RateLimiter.Limit("student", studentRate, studentBurst);
+        this.staffLimit = new RateLimiter.Limit("staff", staffRate, staffBurst);
+        this.registry = registry;
+        registry.gauge("ratelimit.keys", limiter, RateLimiter::size);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RateLimiter.Limit limit;
+        String key;
+        String path = request.getRequestURI();
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        if (path.startsWith("/api/users/login") || path.startsWith("/api/users/signup")) {
+            limit = authLimit;
+            key = clientIp(request);
+        } else if (auth != null && auth.getPrincipal() instanceof CustomUserDetails user) {
+            boolean privileged = auth.getAuthorities().stream()
+                    .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN") || a.getAuthority().equals("ROLE_STAFF"));
+            limit = privileged ? staffLimit : studentLimit;
+            key = TenantContext.tenantId() + ":" + user.getUsername(); // emails are unique per tenant only
+        } else {
+            limit = anonymousLimit;
+            key = clientIp(request);
+        }
+
+        long waitNanos = limiter.tryAcquire(limit, key);
+        if (waitNanos > 0) {
+            registry.counter("ratelimit.rejected", "limit", limit.name()).increment();
+            long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", Long.toString(retryAfter));
+            response.setContentType("text/plain");
+            response.getWriter().write("Too many requests");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpiredBuckets() {
+        limiter.evictExpired();
+    }
+}
@@ -0,0 +1,101 @@
+package com.auth.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket keyed by an arbitrary string (IP, email, ...).
+ *
+ * Each bucket is a single "theoretical arrival time" (GCRA), updated with one
+ * CAS per request. A bucket whose arrival time lies in the past is full again
+ * and carries no state, so it can be dropped at any time; that is what keeps
+ * the map bounded. If the map is still full after a sweep, new keys share one
+ * overflow bucket per limit instead of growing memory.
+ */
+public class RateLimiter {
+
+    /** Sustained rate and burst size of one class of clients. */
+    public record Limit(String name, double permitsPerSecond, int burst) {
+
+        long intervalNanos() {
+            return (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        }
+    }
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> overflow = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final int maxKeys;
+    private final LongSupplier clock;
+
+    public RateLimiter(int maxKeys) {
+        this(maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(int maxKeys, LongSupplier clock) {
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes one permit for the key.
+     *
+     * @return 0 if the request is admitted, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(Limit limit, String key) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = bucketFor(limit, key, now);
+        long interval = limit.intervalNanos();
+        long tolerance = interval * limit.burst();
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + interval;
+            long allowAt = newTat - tolerance;
+            if (now < allowAt) {
+                return allowAt - now;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucketFor(Limit limit, String key, long now) {
+        String bucketKey = limit.name() + ':' + key;
+        AtomicLong bucket = buckets.get(bucketKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            evictExpired(now);
+            if (buckets.size() >= maxKeys) {
+                return overflow.computeIfAbsent(limit.name(), n -> new AtomicLong(now));
+            }
+        }
+        return buckets.computeIfAbsent(bucketKey, k -> new AtomicLong(now));
+    }
+
+    /** Drops every bucket that has refilled completely. */
+    public void evictExpired() {
+        evictExpired(clock.getAsLong());
+    }
+
+    private void evictExpired(long now) {
+        // one sweeper at a time; others just use the overflow bucket meanwhile
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.entrySet().removeIf(e -> e.getValue().get() <= now);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -1,9 +1,11 @@
 package com.auth.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod; 
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -14,6 +16,12 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration; 
 import org.springframework.web.cors.CorsConfigurationSource; 
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource; 
+
+import com.auth.bulkhead.BulkheadFilter;
+import com.auth.tenant.TenantFilter;
+
+import jakarta.servlet.DispatcherType;
+
 import java.util.List;
 
 @Configuration
@@ -21,6 +29,14 @@ import java.util.List;
 public class SecurityConfig {
     @Autowired
     private JwtAuthFilter jwtAuthFilter ;
+    @Autowired
+    private RateLimitFilter rateLimitFilter ;
+    @Autowired
+    private BulkheadFilter bulkheadFilter ;
+    @Autowired
+    private TenantFilter tenantFilter ;
+    @Autowired
+    private PrometheusScrapeAccess prometheusScrapeAccess ;
   
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -31,13 +47,16 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 // --- 2. ALLOW ALL PREFLIGHT OPTIONS REQUESTS ---
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() 
+                // the original request was authorized already; without this an anonymous
+                // client's 400/503 (e.g. a full hashing pool on login) turns into a 403
+                .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                 
                 // --- 3. RE-DEFINE YOUR EXISTING RULES ---
-                .requestMatchers("/api/users/login", "/api/users/signup").permitAll()
+                .requestMatchers("/api/users/login", "/api/users/signup", "/api/users/refresh", "/api/users/logout").permitAll()
                 
                 // Equipment Rules
                 .requestMatchers(HttpMethod.GET, "/api/equipment", "/api/equipment/**").authenticated()
-                .requestMatchers(HttpMethod.POST, "/api/equipment").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/equipment", "/api/equipment/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/equipment/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/equipment/**").hasRole("ADMIN")
 
@@ -49,15 +68,57 @@ public class SecurityConfig {
                 .requestMatchers("/api/borrow/**").authenticated()
                 .requestMatchers("/api/notifications/**").hasAnyRole("ADMIN", "STAFF")
 
+                // Actuator: health is open, the Prometheus scrape needs its credential (or ADMIN), the rest is for admins
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/prometheus").access((authentication, context) ->
+                        new AuthorizationDecision(prometheusScrapeAccess.allows(authentication.get(), context.getRequest())))
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                 // All others
                 .anyRequest().authenticated()
             )
             .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
         http.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+        // the user lookup in the JWT filter is already tenant-scoped
+        http.addFilterBefore(tenantFilter, JwtAuthFilter.class);
+        // after the JWT filter, so limits can be keyed by the authenticated user
+        http.addFilterAfter(rateLimitFilter, UsernamePasswordAuthenticationFilter.class);
+        // compartments are chosen by role, so this also needs the authenticated user
+        http.addFilterAfter(bulkheadFilter, RateLimitFilter.class);
         return http.build();
     }
 
+    // These filters are @Components; keep Boot from also registering them in the
+    // servlet chain, where they would parse the token / take a permit twice.
+    @Bean
+    public FilterRegistrationBean<JwtAuthFilter> jwtAuthFilterRegistration(JwtAuthFilter filter) {
+        FilterRegistrationBean<JwtAuthFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<TenantFilter> tenantFilterRegistration(TenantFilter filter) {
+        FilterRegistrationBean<TenantFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilterRegistration(BulkheadFilter filter) {
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     // --- 4. ADD THIS BEAN TO DEFINE YOUR CORS CONFIG ---
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
@@ -67,7 +128,9 @@ public class SecurityConfig {
         // These are the methods you want to allow
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         // These are the headers you want to allow
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Tenant-ID"));
+        // Let the browser read the back-off hint on 429/503 responses
+        config.setExposedHeaders(List.of("Retry-After"));
         // This allows cookies/credentials to be sent
         config.setAllowCredentials(true);
         
@@ -0,0 +1,85 @@
+package com.auth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.auth.dto.ChangeFeed;
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.repository.BorrowRequestRepository;
+
+/**
+ * Delta sync for borrow request lists. A client keeps the cursor of its last
+ * response and asks only for rows written after it, so a refresh costs the
+ * number of changes rather than the length of the history.
+ */
+@Service
+public class BorrowChangeFeedService {
+
+    public static final String SEQUENCE = "borrow_request";
+
+    @Autowired
+    private BorrowRequestRepository brRepo;
+
+    @Value("${changes.page-size:200}")
+    private int pageSize;
+
+    // no cursor: every request of the user, paged from the start
+    @Transactional(readOnly = true)
+    public ChangeFeed myChanges(Long userId, String cursor) {
+        long since = decode(cursor);
+        return page(brRepo.findUserChanges(userId, since, Limit.of(pageSize + 1)), since);
+    }
+
+    /**
+     * Staff queue. Without a cursor this is the current queue; with one it is
+     * every request written since, whatever its status, so rows that left the
+     * queue come back with their new status and the client can drop them.
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeed queueChanges(List<BorrowStatus> statuses, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            // cursor first: a row changing in between is delivered again next time, never lost
+            long max = brRepo.maxChangeSeq();
+            return new ChangeFeed(brRepo.findByStatusIn(statuses), encode(max), false);
+        }
+        long since = decode(cursor);
+        return page(brRepo.findChanges(since, Limit.of(pageSize + 1)), since);
+    }
+
+    private ChangeFeed page(List<BorrowRequest> rows, long since) {
+        boolean hasMore = rows.size() > pageSize;
+        List<BorrowRequest> items = hasMore ? rows.subList(0, pageSize) : rows;
+        long last = items.isEmpty() ? since : items.get(items.size() - 1).getChangeSeq();
+        return new ChangeFeed(items, encode(last), hasMore);
+    }
+
+    static String encode(long seq) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(seq).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            long seq = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+            if (seq < 0) {
+                throw new NumberFormatException();
+            }
+            return seq;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
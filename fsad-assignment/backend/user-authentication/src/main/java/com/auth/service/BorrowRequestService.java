@@ -2,26 +2,52 @@ package com.auth.service;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.auth.entity.BorrowRequest;
 import com.auth.entity.BorrowStatus;
+import com.auth.dto.ExpiryCutoffs;
+import com.auth.dto.ReservedLoan;
 import com.auth.entity.Equipment;
+import com.auth.event.BorrowRequestChangedEvent;
+import com.auth.event.CapacityReleasedEvent;
+import com.auth.event.CatalogChangedEvent;
+import com.auth.report.UtilizationRecorder;
 import com.auth.repository.BorrowRequestRepository;
 import com.auth.repository.EquipmentRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 
 @Service
 public class BorrowRequestService {
+
+    /** Outcome of one waitlist batch: requests approved, and candidates that were no longer pending. */
+    public record Allocation(List<BorrowRequest> approved, List<Long> notPending) {}
+
+    private static final List<BorrowStatus> RESERVING = List.of(BorrowStatus.APPROVED, BorrowStatus.ISSUED);
+
     @Autowired private BorrowRequestRepository brRepo;
     @Autowired private EquipmentRepository equipmentRepo;
+    @Autowired private ApplicationEventPublisher events;
+    @Autowired private ChangeSequenceService changeSequence;
+    @Autowired private UtilizationRecorder utilization;
 
     // create request
+    @Transactional
+    @Timed(value = "borrow.transition", extraTags = {"transition", "create"})
     public BorrowRequest createRequest(Long userId, Long equipmentId, Integer qty, LocalDate start, LocalDate end) {
         if (start.isAfter(end)) throw new IllegalArgumentException("Invalid dates");
         Equipment eq = equipmentRepo.findById(equipmentId).orElseThrow(() -> new EntityNotFoundException("Equipment not found"));
@@ -33,16 +59,20 @@ public class BorrowRequestService {
         br.setStartDate(start);
         br.setEndDate(end);
         br.setStatus(BorrowStatus.PENDING);
-        return brRepo.save(br);
+        return saveChange(br);
     }
 
     // approve request (check availability across overlapping approved/issued)
     @Transactional
+    @Timed(value = "borrow.transition", extraTags = {"transition", "approve"})
     public BorrowRequest approveRequest(Long requestId, Long approverId, String adminComment) {
-        BorrowRequest br = brRepo.findById(requestId).orElseThrow(() -> new EntityNotFoundException("Request not found"));
+        Long equipmentId = brRepo.findEquipmentIdById(requestId).orElseThrow(() -> new EntityNotFoundException("Request not found"));
+        // serialize approvals of this item (manual, waitlist, expiry) so two cannot both take the last units
+        Equipment eq = equipmentRepo.findForUpdateById(equipmentId).orElseThrow();
+        BorrowRequest br = brRepo.findForUpdateById(requestId).orElseThrow(() -> new EntityNotFoundException("Request not found"));
         if (br.getStatus() != BorrowStatus.PENDING) throw new IllegalStateException("Only pending requests can be approved");
+        requireNotKitLine(br);
 
-        Equipment eq = br.getEquipment();
         // sum existing overlapping approved/issued quantities
         Integer already = brRepo.sumOverlappingQuantities(eq.getId(), br.getStartDate(), br.getEndDate());
         int willUse = (already == null ? 0 : already) + br.getQuantityRequested();
@@ -53,19 +83,22 @@ public class BorrowRequestService {
         br.setStatus(BorrowStatus.APPROVED);
         br.setAdminComment(adminComment);
         br.setUpdatedAt(Instant.now());
-        return brRepo.save(br);
+        events.publishEvent(new CatalogChangedEvent(eq.getId()));
+        return saveChange(br);
     }
 
  // issue: mark issued and decrement availableQuantity (for immediate issuance)
     @Transactional
+    @Timed(value = "borrow.transition", extraTags = {"transition", "issue"})
     public BorrowRequest issue(Long requestId, Long issuerId) {
-        BorrowRequest br = brRepo.findById(requestId)
+        BorrowRequest br = brRepo.findWithEquipmentById(requestId)
                 .orElseThrow(() -> new RuntimeException("Borrow request not found with id: " + requestId));
 
         // Only approved requests can be issued
         if (br.getStatus() != BorrowStatus.APPROVED) {
             throw new IllegalStateException("Only approved requests can be issued");
         }
+        requireNotKitLine(br);
 
         Equipment eq = br.getEquipment();
 
@@ -82,15 +115,18 @@ public class BorrowRequestService {
         br.setStatus(BorrowStatus.ISSUED);
         br.setUpdatedAt(Instant.now());
         br.setAdminComment("Issued by user ID: " + issuerId);
+        utilization.issued(br);
 
-        return brRepo.save(br);
+        events.publishEvent(new CatalogChangedEvent(eq.getId()));
+        return saveChange(br);
     }
 
 
     // return: mark returned and increment availableQuantity
     @Transactional
+    @Timed(value = "borrow.transition", extraTags = {"transition", "return"})
     public BorrowRequest markReturned(Long requestId) {
-    	BorrowRequest br = brRepo.findById(requestId)
+    	BorrowRequest br = brRepo.findWithEquipmentById(requestId)
     	        .orElseThrow(() -> new RuntimeException("Borrow request not found with id: " + requestId));
 
         if (br.getStatus() != BorrowStatus.ISSUED) throw new IllegalStateException("Only issued requests can be returned");
@@ -100,30 +136,172 @@ public class BorrowRequestService {
 
         br.setStatus(BorrowStatus.RETURNED);
         br.setUpdatedAt(Instant.now());
-        return brRepo.save(br);
+        utilization.returned(br);
+        events.publishEvent(new CatalogChangedEvent(eq.getId()));
+        events.publishEvent(new CapacityReleasedEvent(eq.getId()));
+        return saveChange(br);
     }
  // reject: mark request as REJECTED and add admin comment
     @Transactional
+    @Timed(value = "borrow.transition", extraTags = {"transition", "reject"})
     public BorrowRequest reject(Long requestId, String comment) {
-        BorrowRequest br = brRepo.findById(requestId)
+        Long equipmentId = brRepo.findEquipmentIdById(requestId)
+                .orElseThrow(() -> new RuntimeException("Borrow request not found with id: " + requestId));
+        // same locks, in the same order, as approvals: a waitlist batch cannot approve it underneath us
+        equipmentRepo.findForUpdateById(equipmentId).orElseThrow();
+        BorrowRequest br = brRepo.findForUpdateById(requestId)
                 .orElseThrow(() -> new RuntimeException("Borrow request not found with id: " + requestId));
 
         // Only pending or approved requests can be rejected
         if (br.getStatus() != BorrowStatus.PENDING && br.getStatus() != BorrowStatus.APPROVED) {
             throw new IllegalStateException("Only pending or approved requests can be rejected");
         }
+        requireNotKitLine(br);
+
+        if (br.getStatus() == BorrowStatus.APPROVED) {
+            // the reservation it held is free again
+            events.publishEvent(new CapacityReleasedEvent(br.getEquipment().getId()));
+        }
 
         // Update status and comment
         br.setStatus(BorrowStatus.REJECTED);
         br.setAdminComment(comment != null ? comment : "Rejected by admin");
         br.setUpdatedAt(Instant.now());
 
-        return brRepo.save(br);
+        events.publishEvent(new CatalogChangedEvent(br.getEquipment().getId()));
+        return saveChange(br);
+    }
+
+    /**
+     * Approves waitlisted requests for one item in a single transaction, in the
+     * given (priority) order. A request that does not fit is skipped and later
+     * smaller ones may still go through. Overlapping reservations are loaded
+     * once and kept up to date in memory, so the batch costs a fixed number of
+     * queries plus one update per approval. The candidates are locked after the
+     * item, so a rejection or expiry of one of them either commits first and is
+     * seen here or waits for the batch.
+     */
+    @Transactional
+    @Timed(value = "borrow.transition", extraTags = {"transition", "waitlist"})
+    public Allocation approveFromWaitlist(Long equipmentId, List<Long> candidateIds) {
+        Equipment eq = equipmentRepo.findForUpdateById(equipmentId).orElse(null);
+        if (eq == null) {
+            return new Allocation(List.of(), candidateIds);
+        }
+        Map<Long, BorrowRequest> rows = brRepo.findAllForUpdate(candidateIds).stream()
+                .collect(Collectors.toMap(BorrowRequest::getId, Function.identity()));
+
+        List<Long> notPending = new ArrayList<>();
+        List<BorrowRequest> candidates = new ArrayList<>();
+        for (Long id : candidateIds) {
+            BorrowRequest br = rows.get(id);
+            if (br == null || br.getStatus() != BorrowStatus.PENDING || br.getKitId() != null
+                    || !equipmentId.equals(br.getEquipment().getId())) {
+                notPending.add(id);
+            } else {
+                candidates.add(br);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new Allocation(List.of(), notPending);
+        }
+
+        LocalDate from = candidates.stream().map(BorrowRequest::getStartDate).min(Comparator.naturalOrder()).orElseThrow();
+        List<ReservedLoan> reserved = new ArrayList<>(brRepo.findReservationsFor(equipmentId, RESERVING, from));
+        List<BorrowRequest> approved = new ArrayList<>();
+        for (BorrowRequest br : candidates) {
+            int already = reserved.stream()
+                    .filter(r -> !(r.endDate().isBefore(br.getStartDate()) || r.startDate().isAfter(br.getEndDate())))
+                    .mapToInt(ReservedLoan::quantity)
+                    .sum();
+            if (already + br.getQuantityRequested() > eq.getTotalQuantity()) {
+                continue;
+            }
+            br.setStatus(BorrowStatus.APPROVED);
+            br.setAdminComment("Approved automatically from the waitlist");
+            br.setUpdatedAt(Instant.now());
+            reserved.add(new ReservedLoan(equipmentId, br.getQuantityRequested(), br.getStartDate(), br.getEndDate()));
+            approved.add(br);
+        }
+        if (!approved.isEmpty()) {
+            long seq = changeSequence.nextBlock(BorrowChangeFeedService.SEQUENCE, approved.size());
+            for (BorrowRequest br : approved) {
+                br.setChangeSeq(seq++);
+                publishChange(brRepo.save(br));
+            }
+            events.publishEvent(new CatalogChangedEvent(equipmentId));
+        }
+        return new Allocation(approved, notPending);
+    }
+
+    /**
+     * Cancels the requests among {@code ids} that are past their TTL and returns
+     * them. Their items are locked first, in id order, the same lock approvals
+     * take, so an approval either commits before the TTL is checked here or
+     * sees the cancellation. Approved ones release their reservation.
+     */
+    @Transactional
+    @Timed(value = "borrow.transition", extraTags = {"transition", "expire"})
+    public List<BorrowRequest> expire(List<Long> ids, ExpiryCutoffs cutoffs) {
+        List<Long> equipmentIds = brRepo.findEquipmentIdsIn(ids);
+        if (equipmentIds.isEmpty()) {
+            return List.of();
+        }
+        equipmentRepo.findAllForUpdate(equipmentIds);
+        List<BorrowRequest> expired = brRepo.lockExpired(ids, cutoffs.pendingCreatedBy(),
+                cutoffs.pendingEndedBefore(), cutoffs.approvedStartedBy());
+        if (expired.isEmpty()) {
+            return expired;
+        }
+
+        LinkedHashSet<Long> released = new LinkedHashSet<>();
+        for (BorrowRequest br : expired) {
+            if (br.getStatus() == BorrowStatus.APPROVED) {
+                released.add(br.getEquipment().getId());
+            }
+            br.setAdminComment(ExpiryCutoffs.comment(br.getStatus()));
+            br.setStatus(BorrowStatus.CANCELLED);
+            br.setUpdatedAt(Instant.now());
+        }
+        released.forEach(id -> {
+            events.publishEvent(new CatalogChangedEvent(id));
+            events.publishEvent(new CapacityReleasedEvent(id));
+        });
+        long seq = changeSequence.nextBlock(BorrowChangeFeedService.SEQUENCE, expired.size());
+        List<BorrowRequest> saved = new ArrayList<>(expired.size());
+        for (BorrowRequest br : expired) {
+            br.setChangeSeq(seq++);
+            BorrowRequest s = brRepo.save(br);
+            publishChange(s);
+            saved.add(s);
+        }
+        return saved;
+    }
+
+    // every write goes through here, last thing in the transaction: the sequence row stays locked until commit
+    private BorrowRequest saveChange(BorrowRequest br) {
+        br.setChangeSeq(changeSequence.next(BorrowChangeFeedService.SEQUENCE));
+        BorrowRequest saved = brRepo.save(br);
+        publishChange(saved);
+        return saved;
+    }
+
+    // kit lines move together (KitRequestService); returns stay per line
+    private static void requireNotKitLine(BorrowRequest br) {
+        if (br.getKitId() != null) {
+            throw new IllegalStateException("Request is part of kit " + br.getKitId() + "; approve, issue or reject the kit");
+        }
+    }
+
+    private void publishChange(BorrowRequest br) {
+        events.publishEvent(new BorrowRequestChangedEvent(br.getId(), br.getUserId(),
+                br.getEquipment().getId(), br.getStatus(), br.getChangeSeq()));
     }
 
     /**
         * Gets all pending requests (for admin).
     */
+    @Transactional(readOnly = true)
     public List<BorrowRequest> getPendingRequests() {
         List<BorrowStatus> statuses = List.of(BorrowStatus.PENDING, BorrowStatus.APPROVED);
         return brRepo.findByStatusIn(statuses);
@@ -132,10 +310,12 @@ public class BorrowRequestService {
     /**
         * Gets all issued requests (for admin).
     */
+    @Transactional(readOnly = true)
     public List<BorrowRequest> getIssuedRequests() { 
         return brRepo.findByStatus(BorrowStatus.ISSUED);
     }
 
+	@Transactional(readOnly = true)
 	public List<BorrowRequest> getRequestsByUser(Long userId) {
 		 return brRepo.findByUserId(userId);
 	}
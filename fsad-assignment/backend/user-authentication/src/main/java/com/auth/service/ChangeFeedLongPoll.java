@@ -0,0 +1,171 @@
+package com.auth.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.auth.dto.ChangeFeed;
+import com.auth.event.BorrowRequestChangedEvent;
+import com.auth.monitoring.QueryCounter;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.tenant.TenantContext;
+import com.auth.tenant.TenantDatabases;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Long-polling for the change feeds. A request with nothing new parks without
+ * a thread until a relevant change commits or its wait runs out, then answers
+ * with the changes (or an empty page and the same cursor). Changes committed
+ * on this node wake waiters immediately; changes from other nodes are noticed
+ * by a cheap MAX(change_seq) check while anyone is waiting. A waiter is only
+ * woken by changes in its own tenant, and fetches in its tenant's scope.
+ * Fetches after a wake read the primary: the replica may not have the change
+ * yet, and the sequence that woke the waiter has already been passed, so
+ * nothing would wake it again.
+ */
+@Component
+public class ChangeFeedLongPoll {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedLongPoll.class);
+
+    /** userId null = staff queue, woken by every change in the tenant. */
+    private record Waiter(TenantContext.Scope scope, Long userId, Supplier<ChangeFeed> fetch,
+                          DeferredResult<ChangeFeed> result) {
+
+        boolean wantsChangeIn(TenantContext.Scope changed, Long changedUserId) {
+            if (!scope.database().equals(changed.database())) {
+                return false;
+            }
+            // a change made by a background job (root scope) could be for anyone in the database
+            if (!changed.isRoot() && !changed.tenantId().equals(scope.tenantId())) {
+                return false;
+            }
+            return userId == null || userId.equals(changedUserId);
+        }
+    }
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    // change sequences are per database
+    private final Map<String, AtomicLong> latestSeq = new ConcurrentHashMap<>();
+    private final ExecutorService fetchers = Executors.newVirtualThreadPerTaskExecutor();
+    private final BorrowRequestRepository brRepo;
+    private final TenantDatabases databases;
+    // read-write, so the read-only feed queries join it on the primary
+    private final TransactionTemplate primaryTx;
+    private final Duration maxWait;
+
+    public ChangeFeedLongPoll(BorrowRequestRepository brRepo, TenantDatabases databases, MeterRegistry registry,
+                              PlatformTransactionManager txManager,
+                              @Value("${changes.long-poll.max-wait:30s}") Duration maxWait) {
+        this.brRepo = brRepo;
+        this.databases = databases;
+        this.primaryTx = new TransactionTemplate(txManager);
+        this.maxWait = maxWait;
+        Gauge.builder("changes.long-poll.waiting", waiters, Queue::size).register(registry);
+    }
+
+    /** Answers now if there are changes or {@code waitSeconds} is 0, otherwise parks the request. */
+    public DeferredResult<ChangeFeed> await(Long userId, int waitSeconds, Supplier<ChangeFeed> fetch) {
+        TenantContext.Scope scope = TenantContext.current();
+        // fetches after a wake run on the fetcher threads but count against this request's query budget
+        fetch = QueryCounter.wrap(fetch);
+        AtomicLong latest = latestSeq(scope.database());
+        long seenSeq = latest.get();
+        ChangeFeed feed = fetch.get();
+        long timeout = Math.min(Math.max(waitSeconds, 0) * 1000L, maxWait.toMillis());
+        DeferredResult<ChangeFeed> result = new DeferredResult<>(timeout, feed);
+        if (!feed.items().isEmpty() || timeout == 0) {
+            result.setResult(feed);
+            return result;
+        }
+        Waiter waiter = new Waiter(scope, userId, fetch, result);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        // a change that committed while we were fetching would otherwise go unnoticed
+        if (latest.get() != seenSeq) {
+            wake(waiter);
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChanged(BorrowRequestChangedEvent event) {
+        TenantContext.Scope changed = TenantContext.current();
+        latestSeq(changed.database()).accumulateAndGet(event.changeSeq(), Math::max);
+        for (Waiter w : waiters) {
+            if (w.wantsChangeIn(changed, event.userId())) {
+                wake(w);
+            }
+        }
+    }
+
+    // changes committed by other nodes
+    @Scheduled(fixedDelayString = "${changes.long-poll.check-interval-ms:1000}")
+    public void checkForRemoteChanges() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        databases.forEach(database -> {
+            if (waiters.stream().noneMatch(w -> w.scope().database().equals(database))) {
+                return;
+            }
+            long max = brRepo.maxChangeSeq();
+            if (max > latestSeq(database).getAndAccumulate(max, Math::max)) {
+                waiters.stream().filter(w -> w.scope().database().equals(database)).forEach(this::wake);
+            }
+        });
+    }
+
+    private AtomicLong latestSeq(String database) {
+        return latestSeq.computeIfAbsent(database, d -> new AtomicLong());
+    }
+
+    private void wake(Waiter waiter) {
+        if (!waiters.remove(waiter)) {
+            return; // already woken or completed
+        }
+        fetchers.execute(() -> {
+            if (waiter.result().isSetOrExpired()) {
+                return;
+            }
+            try {
+                ChangeFeed feed = TenantContext.call(waiter.scope(),
+                        () -> primaryTx.execute(status -> waiter.fetch().get()));
+                if (!feed.items().isEmpty()) {
+                    waiter.result().setResult(feed);
+                } else if (!waiter.result().isSetOrExpired()) {
+                    // the change was not for this view
+                    waiters.add(waiter);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Change feed fetch failed", e);
+                waiter.result().setErrorResult(e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchers.shutdownNow();
+    }
+}
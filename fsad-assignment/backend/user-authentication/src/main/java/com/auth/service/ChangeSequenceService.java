@@ -0,0 +1,60 @@
+package com.auth.service;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auth.entity.ChangeSequence;
+import com.auth.repository.ChangeSequenceRepository;
+
+/**
+ * Monotonic change numbers for delta sync. {@link #next} must run inside the
+ * writing transaction and as late as possible in it: the counter row stays
+ * locked until commit, which serializes writers for that short window but
+ * guarantees that once a reader sees number N, nothing below N can still
+ * appear.
+ */
+@Service
+public class ChangeSequenceService {
+
+    private final ChangeSequenceRepository repo;
+    private final TransactionTemplate createTx;
+
+    public ChangeSequenceService(ChangeSequenceRepository repo, PlatformTransactionManager txManager) {
+        this.repo = repo;
+        this.createTx = new TransactionTemplate(txManager);
+        this.createTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next(String name) {
+        return nextBlock(name, 1);
+    }
+
+    /** Reserves {@code count} consecutive numbers and returns the first. Batches need distinct numbers so a page boundary never splits a shared one. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long nextBlock(String name, int count) {
+        if (repo.increment(name, count) == 0) {
+            // Flyway seeds the row; schemas built by Hibernate (H2 profiles) start without it
+            create(name);
+            repo.increment(name, count);
+        }
+        return repo.current(name) - count + 1;
+    }
+
+    private void create(String name) {
+        try {
+            createTx.executeWithoutResult(status -> {
+                ChangeSequence seq = new ChangeSequence();
+                seq.setName(name);
+                repo.saveAndFlush(seq);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another writer created it first
+        }
+    }
+}
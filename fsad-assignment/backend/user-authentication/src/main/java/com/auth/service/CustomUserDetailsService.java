@@ -9,8 +9,10 @@ import org.springframework.stereotype.Service;
 import com.auth.entity.User;
 import com.auth.repository.UserRepository;
 import com.auth.security.CustomUserDetails;
+import com.auth.tenant.TenantKey;
 
 import java.util.Collections;
+import java.util.Optional;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
@@ -18,9 +20,13 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository repo;
 
+    @Autowired
+    private SingleFlight<TenantKey<String>, Optional<User>> userByEmail;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = repo.findByEmail(email)
+        // a user with several tabs open sends bursts of requests; they share one lookup
+        User user = userByEmail.get(TenantKey.of(email), () -> repo.findByEmail(email))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
 
         GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole());
@@ -4,18 +4,28 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import com.auth.entity.Equipment;
+import com.auth.event.CapacityReleasedEvent;
+import com.auth.event.CatalogChangedEvent;
 import com.auth.repository.EquipmentRepository;
+import com.auth.tenant.TenantContext;
+import com.auth.tenant.TenantKey;
 
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional; // Make sure this is imported
 
 @Service
 public class EquipmentService {
     @Autowired
     private EquipmentRepository equipmentRepository;
+    @Autowired
+    private ApplicationEventPublisher events;
+    @Autowired
+    private SingleFlight<TenantKey<Long>, Optional<Equipment>> equipmentById;
 
     @Transactional // Add @Transactional
     public Equipment create(Equipment e) {
@@ -25,7 +35,9 @@ public class EquipmentService {
         e.setTotalQuantity(total);
         e.setAvailableQuantity(total); // Set available to the new total
         
-        return equipmentRepository.save(e);
+        Equipment saved = equipmentRepository.save(e);
+        events.publishEvent(new CatalogChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Transactional // Add @Transactional
@@ -55,10 +67,35 @@ public class EquipmentService {
         e.setTotalQuantity(newTotal); // Set the new total
         e.setDescription(incoming.getDescription());
         
+        events.publishEvent(new CatalogChangedEvent(id));
+        if (changeInTotal > 0) {
+            events.publishEvent(new CapacityReleasedEvent(id));
+        }
         return equipmentRepository.save(e);
     }
 
-    public void delete(Long id) { equipmentRepository.deleteById(id); }
-    public Optional<Equipment> getById(Long id) { return equipmentRepository.findById(id); }
+    public void delete(Long id) {
+        equipmentRepository.deleteById(id);
+        events.publishEvent(new CatalogChangedEvent(id));
+    }
+    @Transactional(readOnly = true)
+    public Optional<Equipment> getById(Long id) {
+        // concurrent reads of the same id share one query
+        return equipmentById.get(TenantKey.of(id), () -> equipmentRepository.findById(id));
+    }
+    @Transactional(readOnly = true)
     public List<Equipment> listAll() { return equipmentRepository.findAll(); }
+
+    // stock changes on borrow transitions too, so listen to every catalog change, after commit
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        TenantContext.Scope scope = TenantContext.current();
+        if (scope.isRoot()) {
+            // a background job: the item's tenant is not known here
+            equipmentById.invalidateIf(k -> k.key().equals(event.equipmentId())
+                    && k.scope().database().equals(scope.database()));
+        } else {
+            equipmentById.invalidate(new TenantKey<>(scope, event.equipmentId()));
+        }
+    }
 }
\ No newline at end of file
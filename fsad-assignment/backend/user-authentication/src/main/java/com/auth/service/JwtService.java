@@ -3,39 +3,65 @@ package com.auth.service;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.Map;
 
+import com.auth.tenant.TenantContext;
+
 @Service
 public class JwtService {
 
     private static final String SECRET_KEY = "this_is_a_super_secret_key_for_fsad_assignment";
 
+    public static final String TENANT_CLAIM = "tenant";
+
+    // access tokens are short-lived; clients renew them via /api/users/refresh
+    @Value("${jwt.access-token-ttl-ms:900000}")
+    private long accessTokenTtlMs;
+
+    // for the current tenant
     public String generateToken(String email, String name, String role) {
+        String tenant = TenantContext.tenantId();
+        return generateToken(email, name, role, tenant != null ? tenant : TenantContext.DEFAULT_TENANT);
+    }
+
+    public String generateToken(String email, String name, String role, String tenant) {
         Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
         return Jwts.builder()
                 .setSubject(email)
                 .addClaims(Map.of(
                         "name", name,
                         "email", email,
-                        "role", role
+                        "role", role,
+                        TENANT_CLAIM, tenant
                 ))
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 86400000)) // 1 day
+                .setExpiration(new Date(System.currentTimeMillis() + accessTokenTtlMs))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
 
     public String extractEmail(String token) {
-        Claims claims = Jwts.parserBuilder()
+        return parse(token).getSubject();
+    }
+
+    // verifies signature and expiry
+    public Claims parse(String token) {
+        return Jwts.parserBuilder()
                 .setSigningKey(SECRET_KEY.getBytes())
                 .build()
                 .parseClaimsJws(token)
                 .getBody();
-        return claims.getSubject();
+    }
+
+    // tokens issued before tenants existed belong to the default tenant
+    public static String tenantOf(Claims claims) {
+        String tenant = claims.get(TENANT_CLAIM, String.class);
+        return tenant != null ? tenant : TenantContext.DEFAULT_TENANT;
     }
 }
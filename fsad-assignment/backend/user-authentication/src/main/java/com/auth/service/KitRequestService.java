@@ -0,0 +1,308 @@
+package com.auth.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.auth.dto.BorrowRequestDto;
+import com.auth.dto.EquipmentUsage;
+import com.auth.dto.ExpiryCutoffs;
+import com.auth.dto.KitRequestDetails;
+import com.auth.dto.KitRequestDto;
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.Equipment;
+import com.auth.entity.KitRequest;
+import com.auth.event.BorrowRequestChangedEvent;
+import com.auth.event.CapacityReleasedEvent;
+import com.auth.event.CatalogChangedEvent;
+import com.auth.report.UtilizationRecorder;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.KitRequestRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Multi-item requests. Every transition checks and changes all lines in one
+ * transaction and fails as a whole: the equipment rows are locked in id order
+ * with one statement, availability for all lines comes from one grouped
+ * query, and nothing is written unless every line fits.
+ */
+@Service
+public class KitRequestService {
+    @Autowired private KitRequestRepository kitRepo;
+    @Autowired private BorrowRequestRepository brRepo;
+    @Autowired private EquipmentRepository equipmentRepo;
+    @Autowired private ChangeSequenceService changeSequence;
+    @Autowired private ApplicationEventPublisher events;
+    @Autowired private UtilizationRecorder utilization;
+
+    @Transactional
+    @Timed(value = "borrow.transition", extraTags = {"transition", "kit-create"})
+    public KitRequestDetails create(Long userId, KitRequestDto dto) {
+        if (dto.getStartDate() == null || dto.getEndDate() == null || dto.getStartDate().isAfter(dto.getEndDate())) {
+            throw new IllegalArgumentException("Invalid dates");
+        }
+        if (dto.getLines() == null || dto.getLines().isEmpty()) {
+            throw new IllegalArgumentException("A kit needs at least one line");
+        }
+        // one line per item; repeated items are added up
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (BorrowRequestDto line : dto.getLines()) {
+            if (line.getEquipmentId() == null || line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Every line needs an equipment id and a positive quantity");
+            }
+            quantities.merge(line.getEquipmentId(), line.getQuantity(), Integer::sum);
+        }
+        Map<Long, Equipment> equipment = equipmentRepo.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Equipment::getId, Function.identity()));
+        if (equipment.size() != quantities.size()) {
+            throw new EntityNotFoundException("Equipment not found");
+        }
+
+        KitRequest kit = new KitRequest();
+        kit.setUserId(userId);
+        kit.setStartDate(dto.getStartDate());
+        kit.setEndDate(dto.getEndDate());
+        kit = kitRepo.save(kit);
+
+        List<BorrowRequest> lines = new ArrayList<>();
+        for (Map.Entry<Long, Integer> q : quantities.entrySet()) {
+            BorrowRequest br = new BorrowRequest();
+            br.setUserId(userId);
+            br.setKitId(kit.getId());
+            br.setEquipment(equipment.get(q.getKey()));
+            br.setQuantityRequested(q.getValue());
+            br.setStartDate(kit.getStartDate());
+            br.setEndDate(kit.getEndDate());
+            br.setStatus(BorrowStatus.PENDING);
+            lines.add(br);
+        }
+        return new KitRequestDetails(kit, saveLines(lines));
+    }
+
+    @Transactional
+    @Timed(value = "borrow.transition", extraTags = {"transition", "kit-approve"})
+    public KitRequestDetails approve(Long kitId, Long approverId, String comment) {
+        KitRequest kit = lockKit(kitId);
+        requireStatus(kit, BorrowStatus.PENDING, "Only pending kits can be approved");
+        Map<Long, Equipment> locked = lockEquipment(kitId);
+        List<BorrowRequest> lines = brRepo.findKitLines(kitId);
+
+        Map<Long, Long> used = brRepo.sumOverlappingQuantitiesByEquipment(locked.keySet(), kit.getStartDate(), kit.getEndDate())
+                .stream().collect(Collectors.toMap(EquipmentUsage::equipmentId, EquipmentUsage::quantity));
+        List<String> shortItems = new ArrayList<>();
+        for (BorrowRequest br : lines) {
+            Equipment eq = locked.get(br.getEquipment().getId());
+            long willUse = used.getOrDefault(eq.getId(), 0L) + br.getQuantityRequested();
+            if (willUse > eq.getTotalQuantity()) {
+                shortItems.add(eq.getName());
+            }
+        }
+        if (!shortItems.isEmpty()) {
+            throw new IllegalStateException("Not enough items available for the requested date range: " + String.join(", ", shortItems));
+        }
+
+        for (BorrowRequest br : lines) {
+            br.setStatus(BorrowStatus.APPROVED);
+            br.setAdminComment(comment);
+            br.setUpdatedAt(Instant.now());
+        }
+        kit.setStatus(BorrowStatus.APPROVED);
+        kit.setAdminComment(comment);
+        kit.setUpdatedAt(Instant.now());
+        locked.keySet().forEach(id -> events.publishEvent(new CatalogChangedEvent(id)));
+        return new KitRequestDetails(kitRepo.save(kit), saveLines(lines));
+    }
+
+    @Transactional
+    @Timed(value = "borrow.transition", extraTags = {"transition", "kit-issue"})
+    public KitRequestDetails issue(Long kitId, Long issuerId) {
+        KitRequest kit = lockKit(kitId);
+        requireStatus(kit, BorrowStatus.APPROVED, "Only approved kits can be issued");
+        Map<Long, Equipment> locked = lockEquipment(kitId);
+        List<BorrowRequest> lines = brRepo.findKitLines(kitId);
+
+        List<String> shortItems = new ArrayList<>();
+        for (BorrowRequest br : lines) {
+            Equipment eq = locked.get(br.getEquipment().getId());
+            if (eq.getAvailableQuantity() < br.getQuantityRequested()) {
+                shortItems.add(eq.getName());
+            }
+        }
+        if (!shortItems.isEmpty()) {
+            throw new IllegalStateException("Not enough available items to issue now: " + String.join(", ", shortItems));
+        }
+
+        for (BorrowRequest br : lines) {
+            Equipment eq = locked.get(br.getEquipment().getId());
+            eq.setAvailableQuantity(eq.getAvailableQuantity() - br.getQuantityRequested());
+            br.setStatus(BorrowStatus.ISSUED);
+            br.setUpdatedAt(Instant.now());
+            br.setAdminComment("Issued by user ID: " + issuerId);
+        }
+        lines.forEach(utilization::issued);
+        equipmentRepo.saveAll(locked.values());
+        kit.setStatus(BorrowStatus.ISSUED);
+        kit.setUpdatedAt(Instant.now());
+        locked.keySet().forEach(id -> events.publishEvent(new CatalogChangedEvent(id)));
+        return new KitRequestDetails(kitRepo.save(kit), saveLines(lines));
+    }
+
+    // lines already returned one by one are left as they are
+    @Transactional
+    @Timed(value = "borrow.transition", extraTags = {"transition", "kit-return"})
+    public KitRequestDetails markReturned(Long kitId) {
+        KitRequest kit = lockKit(kitId);
+        requireStatus(kit, BorrowStatus.ISSUED, "Only issued kits can be returned");
+        Map<Long, Equipment> locked = lockEquipment(kitId);
+        List<BorrowRequest> lines = brRepo.findKitLines(kitId).stream()
+                .filter(br -> br.getStatus() == BorrowStatus.ISSUED)
+                .toList();
+
+        for (BorrowRequest br : lines) {
+            Equipment eq = locked.get(br.getEquipment().getId());
+            eq.setAvailableQuantity(eq.getAvailableQuantity() + br.getQuantityRequested());
+            br.setStatus(BorrowStatus.RETURNED);
+            br.setUpdatedAt(Instant.now());
+        }
+        lines.forEach(utilization::returned);
+        equipmentRepo.saveAll(locked.values());
+        kit.setStatus(BorrowStatus.RETURNED);
+        kit.setUpdatedAt(Instant.now());
+        locked.keySet().forEach(id -> {
+            events.publishEvent(new CatalogChangedEvent(id));
+            events.publishEvent(new CapacityReleasedEvent(id));
+        });
+        return new KitRequestDetails(kitRepo.save(kit), saveLines(lines));
+    }
+
+    @Transactional
+    @Timed(value = "borrow.transition", extraTags = {"transition", "kit-reject"})
+    public KitRequestDetails reject(Long kitId, String comment) {
+        KitRequest kit = lockKit(kitId);
+        if (kit.getStatus() != BorrowStatus.PENDING && kit.getStatus() != BorrowStatus.APPROVED) {
+            throw new IllegalStateException("Only pending or approved kits can be rejected");
+        }
+        boolean releases = kit.getStatus() == BorrowStatus.APPROVED;
+        List<BorrowRequest> lines = brRepo.findKitLines(kitId);
+        String reason = comment != null ? comment : "Rejected by admin";
+        for (BorrowRequest br : lines) {
+            br.setStatus(BorrowStatus.REJECTED);
+            br.setAdminComment(reason);
+            br.setUpdatedAt(Instant.now());
+            if (releases) {
+                events.publishEvent(new CatalogChangedEvent(br.getEquipment().getId()));
+                events.publishEvent(new CapacityReleasedEvent(br.getEquipment().getId()));
+            }
+        }
+        kit.setStatus(BorrowStatus.REJECTED);
+        kit.setAdminComment(reason);
+        kit.setUpdatedAt(Instant.now());
+        return new KitRequestDetails(kitRepo.save(kit), saveLines(lines));
+    }
+
+    /**
+     * Cancels the kits among {@code kitIds} that are past their TTL, lines
+     * included, and returns them. Headers are locked in id order; as for the
+     * other transitions, nothing touches a kit's lines without its header lock.
+     */
+    @Transactional
+    @Timed(value = "borrow.transition", extraTags = {"transition", "kit-expire"})
+    public List<KitRequest> expire(List<Long> kitIds, ExpiryCutoffs cutoffs) {
+        List<KitRequest> kits = kitRepo.lockExpired(kitIds, cutoffs.pendingCreatedBy(),
+                cutoffs.pendingEndedBefore(), cutoffs.approvedStartedBy());
+        if (kits.isEmpty()) {
+            return kits;
+        }
+        Map<Long, KitRequest> byId = kits.stream().collect(Collectors.toMap(KitRequest::getId, Function.identity()));
+        List<BorrowRequest> lines = brRepo.findKitLinesIn(byId.keySet());
+        LinkedHashSet<Long> released = new LinkedHashSet<>();
+        for (BorrowRequest br : lines) {
+            BorrowStatus expiring = byId.get(br.getKitId()).getStatus();
+            if (expiring == BorrowStatus.APPROVED) {
+                released.add(br.getEquipment().getId());
+            }
+            br.setStatus(BorrowStatus.CANCELLED);
+            br.setAdminComment(ExpiryCutoffs.comment(expiring));
+            br.setUpdatedAt(Instant.now());
+        }
+        for (KitRequest kit : kits) {
+            kit.setAdminComment(ExpiryCutoffs.comment(kit.getStatus()));
+            kit.setStatus(BorrowStatus.CANCELLED);
+            kit.setUpdatedAt(Instant.now());
+        }
+        released.forEach(id -> {
+            events.publishEvent(new CatalogChangedEvent(id));
+            events.publishEvent(new CapacityReleasedEvent(id));
+        });
+        List<KitRequest> saved = kitRepo.saveAll(kits);
+        saveLines(lines);
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public KitRequestDetails get(Long kitId) {
+        return new KitRequestDetails(kit(kitId), brRepo.findKitLines(kitId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<KitRequest> getKitsByUser(Long userId) {
+        return kitRepo.findByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    private KitRequest kit(Long kitId) {
+        return kitRepo.findById(kitId).orElseThrow(() -> new EntityNotFoundException("Kit request not found"));
+    }
+
+    private KitRequest lockKit(Long kitId) {
+        return kitRepo.findForUpdateById(kitId).orElseThrow(() -> new EntityNotFoundException("Kit request not found"));
+    }
+
+    private static void requireStatus(KitRequest kit, BorrowStatus status, String message) {
+        if (kit.getStatus() != status) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    // before the lines are loaded, so the equipment they reference is read under the lock
+    private Map<Long, Equipment> lockEquipment(Long kitId) {
+        List<Long> ids = brRepo.findKitEquipmentIds(kitId);
+        Map<Long, Equipment> locked = new LinkedHashMap<>();
+        if (!ids.isEmpty()) {
+            equipmentRepo.findAllForUpdate(ids).forEach(eq -> locked.put(eq.getId(), eq));
+        }
+        return locked;
+    }
+
+    // same as BorrowRequestService.saveChange for a batch: one block of change numbers, taken last
+    private List<BorrowRequest> saveLines(List<BorrowRequest> lines) {
+        if (lines.isEmpty()) {
+            return lines;
+        }
+        long seq = changeSequence.nextBlock(BorrowChangeFeedService.SEQUENCE, lines.size());
+        List<BorrowRequest> saved = new ArrayList<>(lines.size());
+        for (BorrowRequest br : lines) {
+            br.setChangeSeq(seq++);
+            BorrowRequest s = brRepo.save(br);
+            events.publishEvent(new BorrowRequestChangedEvent(s.getId(), s.getUserId(),
+                    s.getEquipment().getId(), s.getStatus(), s.getChangeSeq()));
+            saved.add(s);
+        }
+        return saved;
+    }
+}
@@ -4,6 +4,7 @@ import com.auth.entity.Notification;
 import com.auth.dto.NotificationDTO;
 import com.auth.repository.NotificationRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.stream.Collectors;
 @Service
@@ -12,6 +13,7 @@ public class NotificationService {
   public NotificationService(NotificationRepository notificationRepository) {
     this.notificationRepository = notificationRepository;
   }
+  @Transactional(readOnly = true)
   public List<NotificationDTO> getUnreadNotifications() {
     return notificationRepository.findByReadFlagFalse()
             .stream()
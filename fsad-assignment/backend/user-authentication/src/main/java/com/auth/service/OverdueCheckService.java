@@ -1,44 +1,105 @@
 package com.auth.service;
 
+import com.auth.cluster.ClusterMembership;
+import com.auth.cluster.Shard;
 import com.auth.entity.BorrowRequest;
 import com.auth.entity.BorrowStatus;
 import com.auth.entity.Notification;
+import com.auth.event.BorrowRequestChangedEvent;
 import com.auth.repository.BorrowRequestRepository;
 import com.auth.repository.NotificationRepository;
+import com.auth.tenant.TenantDatabases;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class OverdueCheckService {
 
+  private static final Logger log = LoggerFactory.getLogger(OverdueCheckService.class);
+
   private final BorrowRequestRepository brRepo;
   private final NotificationRepository notificationRepository;
+  private final ClusterMembership membership;
+  private final ChangeSequenceService changeSequence;
+  private final ApplicationEventPublisher events;
+  private final TenantDatabases databases;
+  private final TransactionTemplate tx;
 
-  public OverdueCheckService(BorrowRequestRepository brRepo, NotificationRepository notificationRepository) {
+  public OverdueCheckService(BorrowRequestRepository brRepo, NotificationRepository notificationRepository,
+                             ClusterMembership membership, ChangeSequenceService changeSequence,
+                             ApplicationEventPublisher events, TenantDatabases databases,
+                             PlatformTransactionManager txManager) {
     this.brRepo = brRepo;
     this.notificationRepository = notificationRepository;
+    this.membership = membership;
+    this.changeSequence = changeSequence;
+    this.events = events;
+    this.databases = databases;
+    this.tx = new TransactionTemplate(txManager);
   }
 
-  @Scheduled(cron="0 0 */6 * * *") // every 6 hours
+  // every 6 hours on every node; each node only scans its own shard, of every tenant database
+  @Scheduled(cron="0 0 */6 * * *")
+  @Timed("overdue.check")
   public void checkOverdues() {
+    Shard shard = membership.currentShard().orElse(null);
+    if (shard == null) {
+      log.warn("Skipping overdue check: {} is not registered as a live node", membership.nodeId());
+      return;
+    }
+    // one transaction per database, opened inside its scope
+    databases.forEach(database -> tx.executeWithoutResult(status -> checkOverdues(shard)));
+  }
+
+  // manual trigger: the whole table, safe to run next to the scheduled job
+  @Transactional
+  public void checkAllOverdues() {
+    checkOverdues(Shard.ALL);
+  }
+
+  @Transactional
+  public int checkOverdues(Shard shard) {
     LocalDate today = LocalDate.now();
-    // Custom query
-    List<BorrowRequest> overdueRequests = brRepo.findByStatusAndOverdueFalseAndEndDateBefore(BorrowStatus.ISSUED, today);
+    // fetches equipment with the rows, used in the message below
+    List<BorrowRequest> overdueRequests =
+        brRepo.findOverdueInShard(BorrowStatus.ISSUED, today, shard.count(), shard.index());
 
+    List<BorrowRequest> flagged = new ArrayList<>();
     for (BorrowRequest br : overdueRequests) {
-      br.setOverdue(true); 
-      brRepo.save(br);
-
+      // shards overlap briefly while nodes join or leave; the conditional update decides who notifies
+      if (brRepo.markOverdueIfNotYet(br.getId()) == 0) {
+        continue;
+      }
       Notification n = new Notification();
       n.setLoanId(br.getId()); // Use BorrowRequest ID
+      n.setTenantId(br.getTenantId()); // the scheduled run is not scoped to one tenant
       n.setMessage("Equipment '" + br.getEquipment().getName() + "' is overdue since " + br.getEndDate());
       n.setCreatedAt(LocalDateTime.now());
       notificationRepository.save(n);
+      flagged.add(br);
+    }
+    if (!flagged.isEmpty()) {
+      // change numbers for the batch, taken at the end so the sequence lock is held only until commit
+      long seq = changeSequence.nextBlock(BorrowChangeFeedService.SEQUENCE, flagged.size());
+      for (BorrowRequest br : flagged) {
+        brRepo.stampChangeSeq(br.getId(), seq);
+        events.publishEvent(new BorrowRequestChangedEvent(br.getId(), br.getUserId(),
+            br.getEquipment().getId(), br.getStatus(), seq++));
+      }
     }
+    return flagged.size();
   }
 
-}
\ No newline at end of file
+}
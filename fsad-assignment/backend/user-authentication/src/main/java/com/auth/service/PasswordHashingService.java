@@ -0,0 +1,121 @@
+package com.auth.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.auth.monitoring.QueryCounter;
+import com.auth.tenant.TenantContext;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt work on a dedicated, bounded pool so a login storm cannot take
+ * every request thread. When the pool and its queue are full callers get a 503
+ * straight away instead of piling up behind the CPU.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final BCryptPasswordEncoder encoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer verifyTimer;
+    private final Timer encodeTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(@Value("${auth.bcrypt.strength:10}") int strength,
+                                  @Value("${auth.hashing.pool-size:0}") int poolSize,
+                                  @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                  MeterRegistry registry) {
+        this.strength = strength;
+        this.encoder = new BCryptPasswordEncoder(strength);
+
+        // BCrypt is pure CPU, so by default one thread per core. These stay platform
+        // threads in virtual-thread mode: the pool size is what bounds the CPU use.
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.verifyTimer = Timer.builder("auth.password.hash").tag("operation", "verify").register(registry);
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("operation", "encode").register(registry);
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait").register(registry);
+        this.rejected = Counter.builder("auth.password.rejected").register(registry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size()).register(registry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+    }
+
+    public CompletableFuture<Boolean> verify(String rawPassword, String encodedPassword) {
+        return submit(verifyTimer, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * True when the stored hash was produced with a different cost than the
+     * configured one, so it should be replaced after a successful login.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        // BCrypt hashes look like $2a$10$..., the cost is the second field
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(3) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        try {
+            // the caller's continuations (saving the user, issuing tokens) run here, in its tenant and
+            // counting against its request's query budget
+            executor.execute(QueryCounter.wrap(TenantContext.wrap(() -> {
+                queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    result.complete(timer.record(work));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            })));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(
+                    new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many login attempts in progress, retry shortly"));
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
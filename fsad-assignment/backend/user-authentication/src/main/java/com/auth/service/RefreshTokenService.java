@@ -0,0 +1,123 @@
+package com.auth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.auth.cluster.LeaseService;
+import com.auth.entity.RefreshToken;
+import com.auth.repository.RefreshTokenRepository;
+import com.auth.tenant.TenantDatabases;
+
+/**
+ * Issues and rotates opaque refresh tokens. A refresh token is single use:
+ * presenting it returns a new one from the same family. Presenting a token
+ * that was already used means it leaked, so the whole family is revoked.
+ */
+@Service
+public class RefreshTokenService {
+
+    /** Result of a successful rotation. */
+    public record Rotation(Long userId, String refreshToken) {}
+
+    private final RefreshTokenRepository repo;
+    private final LeaseService leases;
+    private final TenantDatabases databases;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository repo,
+                               LeaseService leases,
+                               TenantDatabases databases,
+                               @Value("${jwt.refresh-token-ttl:P14D}") Duration ttl) {
+        this.repo = repo;
+        this.leases = leases;
+        this.databases = databases;
+        this.ttl = ttl;
+    }
+
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw invalid();
+        }
+        RefreshToken current = repo.findByTokenHash(hash(rawToken))
+                .orElseThrow(RefreshTokenService::invalid);
+
+        if (current.isRevoked()) {
+            // reuse of an already rotated token: kill every token from that login
+            repo.revokeFamily(current.getFamilyId());
+            throw invalid();
+        }
+        if (current.getExpiresAt().isBefore(Instant.now())) {
+            throw invalid();
+        }
+        if (repo.revokeIfActive(current.getId()) == 0) {
+            // lost a race with another request presenting the same token
+            repo.revokeFamily(current.getFamilyId());
+            throw invalid();
+        }
+        return new Rotation(current.getUserId(), issue(current.getUserId(), current.getFamilyId()));
+    }
+
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        repo.findByTokenHash(hash(rawToken))
+                .ifPresent(t -> repo.revokeFamily(t.getFamilyId()));
+    }
+
+    @Scheduled(cron = "0 30 3 * * *") // nightly, on one node
+    public void purgeExpired() {
+        if (!leases.tryAcquire("refresh-token-purge", Duration.ofMinutes(30))) {
+            return;
+        }
+        Instant now = Instant.now();
+        databases.forEach(database -> repo.deleteExpired(now));
+    }
+
+    private String issue(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken t = new RefreshToken();
+        t.setUserId(userId);
+        t.setTokenHash(hash(raw));
+        t.setFamilyId(familyId);
+        t.setCreatedAt(Instant.now());
+        t.setExpiresAt(t.getCreatedAt().plus(ttl));
+        repo.save(t);
+        return raw;
+    }
+
+    // tokens are 256 random bits, so a fast hash is enough (no BCrypt needed)
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+    }
+}
@@ -0,0 +1,166 @@
+package com.auth.service;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Collapses concurrent loads of the same key into one. The first caller (the
+ * leader) runs the loader on its own thread; callers arriving while it runs
+ * wait for and share its result, and callers within {@code resultTtl} after it
+ * finishes get that result without loading at all.
+ * <p>
+ * A failed load is handed to the callers that were waiting for it but never
+ * cached. If the leader is interrupted (its request was cancelled) the waiters
+ * retry instead of failing, and a waiter that gives up after {@code maxWait}
+ * loads on its own, so one stuck query cannot hold every request for the key.
+ * {@link #invalidate} also drops a load already in flight, so a read that
+ * started before a write never repopulates the cache with the old value.
+ */
+public class SingleFlight<K, V> {
+
+    private record Cached<V>(V value, long expiresAt) {}
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, Cached<V>> recent = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final long resultTtlNanos;
+    private final long maxWaitNanos;
+    private final int maxEntries;
+
+    private final Counter leaders;
+    private final Counter shared;
+    private final Counter cached;
+    private final Counter fallbacks;
+
+    public SingleFlight(String name, Duration resultTtl, Duration maxWait, int maxEntries, MeterRegistry registry) {
+        this.resultTtlNanos = resultTtl.toNanos();
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxEntries = maxEntries;
+        this.leaders = calls(name, "leader", registry);
+        this.shared = calls(name, "shared", registry);
+        this.cached = calls(name, "cached", registry);
+        this.fallbacks = calls(name, "fallback", registry);
+        Gauge.builder("singleflight.inflight", inFlight, ConcurrentHashMap::size)
+                .tag("name", name).register(registry);
+        // share of calls that did not hit the database themselves
+        Gauge.builder("singleflight.collapse.ratio", this, SingleFlight::collapseRatio)
+                .tag("name", name).register(registry);
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        while (true) {
+            Cached<V> hit = recent.get(key);
+            if (hit != null && hit.expiresAt() - System.nanoTime() > 0) {
+                cached.increment();
+                return hit.value();
+            }
+
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+            if (running == null) {
+                leaders.increment();
+                return lead(key, mine, loader);
+            }
+
+            waiting.incrementAndGet();
+            try {
+                V value = running.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+                shared.increment();
+                return value;
+            } catch (CancellationException e) {
+                // the leader's request went away before it finished; try again, possibly as the leader
+            } catch (ExecutionException e) {
+                shared.increment();
+                throw rethrow(e.getCause());
+            } catch (TimeoutException e) {
+                fallbacks.increment();
+                return loader.get();
+            } catch (InterruptedException e) {
+                // only this caller stops waiting; the load carries on for the others
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for " + key);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        recent.remove(key);
+        inFlight.remove(key);
+    }
+
+    public void invalidateIf(Predicate<K> matches) {
+        recent.keySet().removeIf(matches);
+        inFlight.keySet().removeIf(matches);
+    }
+
+    public void invalidateAll() {
+        recent.clear();
+        inFlight.clear();
+    }
+
+    private V lead(K key, CompletableFuture<V> mine, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, mine);
+            if (Thread.currentThread().isInterrupted()) {
+                mine.cancel(false);
+            } else {
+                mine.completeExceptionally(e);
+            }
+            throw e;
+        }
+        // a concurrent invalidate() removed our entry: hand the value to current waiters but do not cache it
+        if (inFlight.remove(key, mine) && resultTtlNanos > 0) {
+            if (recent.size() >= maxEntries) {
+                long now = System.nanoTime();
+                recent.values().removeIf(c -> c.expiresAt() - now <= 0);
+                if (recent.size() >= maxEntries) {
+                    recent.clear();
+                }
+            }
+            recent.put(key, new Cached<>(value, System.nanoTime() + resultTtlNanos));
+        }
+        mine.complete(value);
+        return value;
+    }
+
+    int waiting() {
+        return waiting.get();
+    }
+
+    private double collapseRatio() {
+        double collapsed = shared.count() + cached.count();
+        double total = collapsed + leaders.count() + fallbacks.count();
+        return total == 0 ? 0 : collapsed / total;
+    }
+
+    private static Counter calls(String name, String outcome, MeterRegistry registry) {
+        return Counter.builder("singleflight.calls").tag("name", name).tag("outcome", outcome).register(registry);
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException re) {
+            return re;
+        }
+        if (cause instanceof Error err) {
+            throw err;
+        }
+        return new IllegalStateException(cause);
+    }
+}
@@ -1,14 +1,21 @@
 package com.auth.service;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import com.auth.dto.AuthTokens;
 import com.auth.dto.SignupRequest;
 import com.auth.entity.User;
 import com.auth.repository.UserRepository;
+import com.auth.tenant.TenantKey;
 
 
 @Service
@@ -18,7 +25,14 @@ public class UserService {
     private  UserRepository repo;
 	@Autowired
     private  JwtService jwtService;
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+	@Autowired
+    private  PasswordHashingService passwordHasher;
+	@Autowired
+    private  RefreshTokenService refreshTokenService;
+	@Autowired
+    private  MeterRegistry meterRegistry;
+	@Autowired
+    private  SingleFlight<TenantKey<String>, Optional<User>> userByEmail;
 
 //    public String signup(User user) {
 //        user.setPassword(encoder.encode(user.getPassword()));
@@ -27,39 +41,76 @@ public class UserService {
 //    }
   
 
-    public String signup(SignupRequest request) {
+    public CompletableFuture<AuthTokens> signup(SignupRequest request) {
         if (repo.existsByEmail(request.getEmail())) {
             throw(new RuntimeException("Invalid email or password"));
         }
-        User user = new User();
-        user.setName(request.getName());
-        user.setEmail(request.getEmail());
-        user.setPassword(encoder.encode(request.getPassword()));
-        user.setRole(request.getRole());
-
-        repo.save(user);
-        return jwtService.generateToken(user.getEmail(), user.getName(), user.getRole());
-
+        return passwordHasher.encode(request.getPassword()).thenApply(hash -> {
+            User user = new User();
+            user.setName(request.getName());
+            user.setEmail(request.getEmail());
+            user.setPassword(hash);
+            user.setRole(request.getRole());
+
+            repo.save(user);
+            userByEmail.invalidate(TenantKey.of(user.getEmail()));
+            return issueTokens(user);
+        });
     }
 
 
-    public String login(String email, String password) {
-        User user = repo.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Invalid email or password"));
-        
-        if (!encoder.matches(password, user.getPassword())) {
+    // BCrypt runs on the hashing pool; the request thread is released while it waits
+    public CompletableFuture<AuthTokens> login(String email, String password) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        User user = repo.findByEmail(email).orElse(null);
+        if (user == null) {
+            sample.stop(meterRegistry.timer("auth.login", "outcome", "unknown_user"));
             throw new RuntimeException("Invalid email or password");
         }
 
-        return jwtService.generateToken(user.getEmail(), user.getName(), user.getRole());
+        return passwordHasher.verify(password, user.getPassword()).thenApply(matches -> {
+            if (!matches) {
+                throw new RuntimeException("Invalid email or password");
+            }
+            if (passwordHasher.needsRehash(user.getPassword())) {
+                rehash(user, password);
+            }
+            return issueTokens(user);
+        }).whenComplete((tokens, error) ->
+                sample.stop(meterRegistry.timer("auth.login", "outcome", error == null ? "success" : "failure")));
+    }
+
+    // renew an access token without touching the password hash
+    public AuthTokens refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = getUserById(rotation.userId());
+        String token = jwtService.generateToken(user.getEmail(), user.getName(), user.getRole(), user.getTenantId());
+        return new AuthTokens(token, rotation.refreshToken());
+    }
+
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+    }
+
+    private AuthTokens issueTokens(User user) {
+        String token = jwtService.generateToken(user.getEmail(), user.getName(), user.getRole(), user.getTenantId());
+        return new AuthTokens(token, refreshTokenService.issue(user.getId()));
+    }
 
+    // upgrade the stored hash to the configured cost; best effort, never fails the login
+    private void rehash(User user, String password) {
+        String oldHash = user.getPassword();
+        passwordHasher.encode(password)
+                .thenAccept(newHash -> repo.updatePasswordIfUnchanged(user.getId(), oldHash, newHash));
     }
 
 
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return repo.findAll();
     }
 
+    @Transactional(readOnly = true)
     public User getUserById(Long id) {
         return repo.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
     }
@@ -68,10 +119,13 @@ public class UserService {
         User existing = getUserById(id);
         existing.setName(updatedUser.getName());
         existing.setRole(updatedUser.getRole());
-        return repo.save(existing);
+        User saved = repo.save(existing);
+        userByEmail.invalidate(TenantKey.of(saved.getEmail()));
+        return saved;
     }
 
     public void deleteUser(Long id) {
+        repo.findById(id).ifPresent(u -> userByEmail.invalidate(TenantKey.of(u.getEmail())));
         repo.deleteById(id);
     }
 }
@@ -0,0 +1,104 @@
+package com.auth.startup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.auth.entity.Equipment;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.service.EquipmentService;
+import com.auth.service.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs the hot paths a few thousand times before the instance reports ready,
+ * so the JIT has compiled them and the pool, query plans and caches are warm
+ * by the time the load balancer sends traffic. Spring Boot only switches
+ * readiness to ACCEPTING_TRAFFIC after all ApplicationRunners have finished.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+    // availability checks hit the database; a few are enough for the pool and plan cache
+    private static final int DB_ITERATIONS = 50;
+
+    private final JwtService jwtService;
+    private final EquipmentService equipmentService;
+    private final BorrowRequestRepository brRepo;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final int iterations;
+
+    public WarmupRunner(JwtService jwtService, EquipmentService equipmentService,
+                        BorrowRequestRepository brRepo, ObjectMapper objectMapper, MeterRegistry registry,
+                        @Value("${startup.warmup.enabled:true}") boolean enabled,
+                        @Value("${startup.warmup.iterations:2000}") int iterations) {
+        this.jwtService = jwtService;
+        this.equipmentService = equipmentService;
+        this.brRepo = brRepo;
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        this.enabled = enabled;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long t0 = System.nanoTime();
+        try {
+            warmJwt();
+            warmCatalog();
+            warmAvailability();
+        } catch (Exception e) {
+            // a cold instance is still better than one that never becomes ready
+            log.warn("Warm-up failed, continuing cold: {}", e.toString());
+        }
+        long elapsed = System.nanoTime() - t0;
+        registry.timer("startup.warmup").record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Warm-up finished in {} ms ({} iterations)", TimeUnit.NANOSECONDS.toMillis(elapsed), iterations);
+    }
+
+    private void warmJwt() {
+        String token = jwtService.generateToken("warmup@localhost", "warmup", "STUDENT");
+        for (int i = 0; i < iterations; i++) {
+            jwtService.extractEmail(token);
+        }
+    }
+
+    private void warmCatalog() throws Exception {
+        List<Equipment> catalog = new ArrayList<>(equipmentService.listAll());
+        for (int i = catalog.size(); i < 50; i++) {
+            Equipment e = new Equipment();
+            e.setName("Warm-up item " + i);
+            e.setCategory("Warm-up");
+            e.setTotalQuantity(10);
+            e.setAvailableQuantity(10);
+            catalog.add(e);
+        }
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.writeValueAsBytes(catalog);
+        }
+    }
+
+    private void warmAvailability() {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < DB_ITERATIONS; i++) {
+            brRepo.sumOverlappingQuantities(-1L, today, today.plusDays(7));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.auth.tenant;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Tenant (campus or lab) and database the current thread works for. Set per
+ * request by {@link TenantFilter}; background jobs run as the root scope of
+ * one database, which sees every tenant stored there. A thread with no scope
+ * works for the default tenant in the shared database, which is how a
+ * single-campus deployment behaves without any tenant configuration.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+    public static final String SHARED_DATABASE = "shared";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    /** tenantId null = root: every tenant in {@code database}. */
+    public record Scope(String tenantId, String database) {
+        public boolean isRoot() {
+            return tenantId == null;
+        }
+    }
+
+    private static final Scope DEFAULT = new Scope(DEFAULT_TENANT, SHARED_DATABASE);
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static Scope current() {
+        Scope scope = CURRENT.get();
+        return scope == null ? DEFAULT : scope;
+    }
+
+    /** Tenant of this thread, or null in a root scope. */
+    public static String tenantId() {
+        return current().tenantId();
+    }
+
+    public static String database() {
+        return current().database();
+    }
+
+    public static boolean isValidId(String tenantId) {
+        return tenantId != null && VALID_ID.matcher(tenantId).matches();
+    }
+
+    public static void run(Scope scope, Runnable work) {
+        Scope previous = CURRENT.get();
+        CURRENT.set(scope);
+        try {
+            work.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static <T> T call(Scope scope, Supplier<T> work) {
+        Scope previous = CURRENT.get();
+        CURRENT.set(scope);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /** For work handed to another thread: runs it in the scope of the thread that created it. */
+    public static Runnable wrap(Runnable work) {
+        Scope scope = current();
+        return () -> run(scope, work);
+    }
+
+    // for TenantFilter, whose chain call throws checked exceptions
+    static Scope enter(Scope scope) {
+        Scope previous = CURRENT.get();
+        CURRENT.set(scope);
+        return previous;
+    }
+
+    static void leave(Scope previous) {
+        restore(previous);
+    }
+
+    private static void restore(Scope previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
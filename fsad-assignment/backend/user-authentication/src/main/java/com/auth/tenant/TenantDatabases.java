@@ -0,0 +1,78 @@
+package com.auth.tenant;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps tenants to databases, and runs background work once per database in
+ * that database's root scope (jobs are not per tenant: one pass over the
+ * shared database covers all the small tenants at once).
+ */
+@Component
+public class TenantDatabases {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantDatabases.class);
+
+    private final TenantProperties properties;
+    private final List<String> names;
+
+    public TenantDatabases(TenantProperties properties) {
+        this.properties = properties;
+        List<String> all = new ArrayList<>();
+        all.add(TenantContext.SHARED_DATABASE);
+        all.addAll(properties.getDatabases().keySet());
+        this.names = Collections.unmodifiableList(all);
+        properties.getPlacement().forEach((tenant, database) -> {
+            if (!names.contains(database)) {
+                throw new IllegalStateException("Tenant " + tenant + " is placed in unknown database " + database);
+            }
+        });
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    /** The default tenant, a configured one or a placed one; anything else does not exist. */
+    public boolean isKnown(String tenantId) {
+        return TenantContext.DEFAULT_TENANT.equals(tenantId)
+                || properties.getKnown().contains(tenantId)
+                || properties.getPlacement().containsKey(tenantId);
+    }
+
+    public String databaseOf(String tenantId) {
+        return properties.getPlacement().getOrDefault(tenantId, TenantContext.SHARED_DATABASE);
+    }
+
+    public TenantContext.Scope scopeOf(String tenantId) {
+        return new TenantContext.Scope(tenantId, databaseOf(tenantId));
+    }
+
+    /** Runs {@code work} as root in each database; a failure in one does not stop the others. */
+    public void forEach(Consumer<String> work) {
+        for (String database : names) {
+            try {
+                TenantContext.run(new TenantContext.Scope(null, database), () -> work.accept(database));
+            } catch (RuntimeException e) {
+                log.warn("Background work failed in database {}", database, e);
+            }
+        }
+    }
+
+    /** True if {@code test} holds in any database, checked as root in each. */
+    public boolean anyMatch(BooleanSupplier test) {
+        for (String database : names) {
+            if (TenantContext.call(new TenantContext.Scope(null, database), test::getAsBoolean)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
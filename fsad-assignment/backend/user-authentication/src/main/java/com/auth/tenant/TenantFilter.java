@@ -0,0 +1,82 @@
+package com.auth.tenant;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.auth.service.JwtService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Scopes each request to a tenant before anything touches the database. A
+ * valid token decides the tenant; requests without one (login, signup,
+ * refresh) name it in the tenant header, and otherwise get the default
+ * tenant. Tenants that are not configured get a 404, so a made-up header
+ * cannot create one (and the per-tenant state that comes with it). The parsed
+ * claims are left on the request for JwtAuthFilter, so the token is verified
+ * once.
+ */
+@Component
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String CLAIMS_ATTRIBUTE = TenantFilter.class.getName() + ".claims";
+
+    private final JwtService jwtService;
+    private final TenantDatabases databases;
+    private final String header;
+
+    public TenantFilter(JwtService jwtService, TenantDatabases databases, TenantProperties properties) {
+        this.jwtService = jwtService;
+        this.databases = databases;
+        this.header = properties.getHeader();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        String requested = request.getHeader(header);
+        if (requested != null && !TenantContext.isValidId(requested)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid tenant id");
+            return;
+        }
+
+        String tenant = requested != null ? requested : TenantContext.DEFAULT_TENANT;
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                Claims claims = jwtService.parse(authHeader.substring(7));
+                request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+                tenant = JwtService.tenantOf(claims);
+                // a token is only good for the tenant it was issued in
+                if (requested != null && !requested.equals(tenant)) {
+                    response.sendError(HttpStatus.FORBIDDEN.value(), "Token belongs to another tenant");
+                    return;
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // JwtAuthFilter reports the bad token; the request continues unauthenticated
+            }
+        }
+
+        if (!databases.isKnown(tenant)) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Unknown tenant");
+            return;
+        }
+
+        TenantContext.Scope previous = TenantContext.enter(databases.scopeOf(tenant));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.leave(previous);
+        }
+    }
+}
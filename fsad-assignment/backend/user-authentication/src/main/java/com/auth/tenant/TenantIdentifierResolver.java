@@ -0,0 +1,41 @@
+package com.auth.tenant;
+
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives Hibernate the current tenant, which it uses to fill and filter every
+ * {@code @TenantId} column: inserts are stamped with the tenant and every
+ * query, load by id and cache key is restricted to it. The root scope of a
+ * background job is unrestricted; rows it inserts must carry their tenant.
+ */
+@Component
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String>, HibernatePropertiesCustomizer {
+
+    static final String ROOT = "*";
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String tenant = TenantContext.tenantId();
+        return tenant != null ? tenant : ROOT;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String tenantId) {
+        return ROOT.equals(tenantId);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+    }
+}
@@ -0,0 +1,12 @@
+package com.auth.tenant;
+
+/**
+ * Cache key qualified by tenant scope: the same id or e-mail in two tenants
+ * (or two databases) is a different entry.
+ */
+public record TenantKey<K>(TenantContext.Scope scope, K key) {
+
+    public static <K> TenantKey<K> of(K key) {
+        return new TenantKey<>(TenantContext.current(), key);
+    }
+}
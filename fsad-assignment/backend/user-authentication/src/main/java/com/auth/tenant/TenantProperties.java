@@ -0,0 +1,100 @@
+package com.auth.tenant;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Where tenants live. Every tenant is in the shared database unless
+ * {@code app.tenants.placement.<tenant>} names one of the dedicated databases
+ * under {@code app.tenants.databases.<name>.*}, so a large campus can get its
+ * own database while small ones share. Only the default tenant, the tenants in
+ * {@code app.tenants.known} and placed tenants exist; requests for any other
+ * are refused.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.tenants")
+public class TenantProperties {
+
+    /** Header naming the tenant on requests without a token (login, signup, refresh). */
+    private String header = "X-Tenant-ID";
+    private Set<String> known = new LinkedHashSet<>();
+    private Map<String, String> placement = new LinkedHashMap<>();
+    private Map<String, Database> databases = new LinkedHashMap<>();
+
+    public String getHeader() {
+        return header;
+    }
+
+    public void setHeader(String header) {
+        this.header = header;
+    }
+
+    public Set<String> getKnown() {
+        return known;
+    }
+
+    public void setKnown(Set<String> known) {
+        this.known = known;
+    }
+
+    public Map<String, String> getPlacement() {
+        return placement;
+    }
+
+    public void setPlacement(Map<String, String> placement) {
+        this.placement = placement;
+    }
+
+    public Map<String, Database> getDatabases() {
+        return databases;
+    }
+
+    public void setDatabases(Map<String, Database> databases) {
+        this.databases = databases;
+    }
+
+    public static class Database {
+
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+}
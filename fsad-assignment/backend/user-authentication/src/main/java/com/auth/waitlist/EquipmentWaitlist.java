@@ -0,0 +1,84 @@
+package com.auth.waitlist;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.auth.dto.PendingRequest;
+
+/** Pending requests for one equipment item, oldest first (ties broken by id). */
+class EquipmentWaitlist {
+
+    private static final Comparator<PendingRequest> ORDER = Comparator
+            .comparing(PendingRequest::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(PendingRequest::requestId);
+
+    private final PriorityQueue<PendingRequest> queue = new PriorityQueue<>(ORDER);
+    private final Map<Long, PendingRequest> byId = new HashMap<>();
+    // not synchronized: callers may be virtual threads, which must not pin their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    void add(PendingRequest request) {
+        lock.lock();
+        try {
+            if (byId.putIfAbsent(request.requestId(), request) == null) {
+                queue.add(request);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(Long requestId) {
+        lock.lock();
+        try {
+            PendingRequest request = byId.remove(requestId);
+            if (request != null) {
+                queue.remove(request);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void replaceAll(Collection<PendingRequest> requests) {
+        lock.lock();
+        try {
+            queue.clear();
+            byId.clear();
+            requests.forEach(this::add);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Ids of the first {@code n} requests in priority order, without removing them. */
+    List<Long> head(int n) {
+        PriorityQueue<PendingRequest> copy;
+        lock.lock();
+        try {
+            copy = new PriorityQueue<>(queue);
+        } finally {
+            lock.unlock();
+        }
+        List<Long> ids = new ArrayList<>(Math.min(n, copy.size()));
+        while (ids.size() < n && !copy.isEmpty()) {
+            ids.add(copy.poll().requestId());
+        }
+        return ids;
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.auth.waitlist;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.auth.dto.PendingRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.event.BorrowRequestChangedEvent;
+import com.auth.event.CapacityReleasedEvent;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.service.BorrowRequestService;
+import com.auth.tenant.TenantContext;
+import com.auth.tenant.TenantDatabases;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Approves waitlisted requests as soon as capacity frees up. Pending requests
+ * are kept per equipment item in memory, fed by request change events and
+ * resynced from the database periodically (which also picks up requests made
+ * on other nodes). A return, a rejected approval or a stock increase marks the
+ * item dirty; one background worker drains dirty items, each in one
+ * transaction, so a burst of releases for an item costs one allocation pass.
+ * Items are kept per tenant database, since ids are only unique within one;
+ * allocation runs in that database's root scope.
+ */
+@Component
+@ConditionalOnProperty(name = "waitlist.enabled", havingValue = "true", matchIfMissing = true)
+public class WaitlistAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistAllocator.class);
+
+    record Item(String database, Long equipmentId) {}
+
+    private final Map<Item, EquipmentWaitlist> waitlists = new ConcurrentHashMap<>();
+    private final Set<Item> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> new Thread(r, "waitlist-allocator"));
+
+    private final BorrowRequestService borrowService;
+    private final BorrowRequestRepository brRepo;
+    private final TenantDatabases databases;
+    private final MeterRegistry registry;
+    private final int batchSize;
+    private final Timer allocationTimer;
+    private final Counter allocated;
+
+    public WaitlistAllocator(BorrowRequestService borrowService, BorrowRequestRepository brRepo,
+                             TenantDatabases databases, MeterRegistry registry,
+                             @Value("${waitlist.batch-size:100}") int batchSize) {
+        this.borrowService = borrowService;
+        this.brRepo = brRepo;
+        this.databases = databases;
+        this.registry = registry;
+        this.batchSize = batchSize;
+        this.allocationTimer = Timer.builder("waitlist.allocation").register(registry);
+        this.allocated = Counter.builder("waitlist.allocated").register(registry);
+        Gauge.builder("waitlist.depth.total", waitlists,
+                m -> m.values().stream().mapToInt(EquipmentWaitlist::size).sum()).register(registry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestChanged(BorrowRequestChangedEvent event) {
+        Item item = new Item(TenantContext.database(), event.equipmentId());
+        if (event.status() == BorrowStatus.PENDING) {
+            // committed just now, so now is its place in the queue
+            waitlist(item).add(new PendingRequest(event.requestId(), event.equipmentId(), Instant.now()));
+        } else {
+            EquipmentWaitlist wl = waitlists.get(item);
+            if (wl != null) {
+                wl.remove(event.requestId());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCapacityReleased(CapacityReleasedEvent event) {
+        dirty.add(new Item(TenantContext.database(), event.equipmentId()));
+        scheduleDrain();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${waitlist.resync-interval-ms:60000}",
+               fixedDelayString = "${waitlist.resync-interval-ms:60000}")
+    public void resync() {
+        databases.forEach(this::resync);
+    }
+
+    private void resync(String database) {
+        Map<Long, List<PendingRequest>> pending = brRepo.findPendingRequests().stream()
+                .collect(Collectors.groupingBy(PendingRequest::equipmentId));
+        pending.forEach((equipmentId, requests) -> waitlist(new Item(database, equipmentId)).replaceAll(requests));
+        waitlists.forEach((item, wl) -> {
+            if (item.database().equals(database) && !pending.containsKey(item.equipmentId())) {
+                wl.replaceAll(List.of());
+            }
+        });
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            worker.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!dirty.isEmpty()) {
+                for (Item item : List.copyOf(dirty)) {
+                    dirty.remove(item);
+                    TenantContext.run(new TenantContext.Scope(null, item.database()), () -> allocate(item));
+                }
+            }
+        } finally {
+            draining.set(false);
+            // an item marked dirty between the last check and the reset
+            if (!dirty.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    void allocate(Item item) {
+        Long equipmentId = item.equipmentId();
+        EquipmentWaitlist wl = waitlists.get(item);
+        if (wl == null || wl.size() == 0) {
+            return;
+        }
+        try {
+            allocationTimer.record(() -> {
+                // later batches wait for the next release; a big queue is not rescanned in one go
+                BorrowRequestService.Allocation result = borrowService.approveFromWaitlist(equipmentId, wl.head(batchSize));
+                result.notPending().forEach(wl::remove);
+                result.approved().forEach(br -> wl.remove(br.getId()));
+                allocated.increment(result.approved().size());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Waitlist allocation failed for equipment {}", equipmentId, e);
+        }
+    }
+
+    private EquipmentWaitlist waitlist(Item item) {
+        return waitlists.computeIfAbsent(item, i -> {
+            EquipmentWaitlist wl = new EquipmentWaitlist();
+            Gauge.builder("waitlist.depth", wl, EquipmentWaitlist::size)
+                    .tag("database", i.database())
+                    .tag("equipment", String.valueOf(i.equipmentId())).register(registry);
+            return wl;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,54 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Drops the old unique key on users.email, now that V6 made addresses unique
+ * per tenant. Its name depends on how the database was created: V1 calls it
+ * uk_users_email, a database from ddl-auto=update has Hibernate's generated
+ * UK… name. So it is looked up in information_schema (a single-column unique
+ * constraint on email) rather than named, which plain SQL cannot do portably.
+ */
+public class V6_1__DropUsersEmailUnique extends BaseJavaMigration {
+
+    private static final String FIND = """
+            SELECT tc.constraint_name
+            FROM information_schema.table_constraints tc
+            JOIN information_schema.key_column_usage k
+              ON k.constraint_schema = tc.constraint_schema
+             AND k.constraint_name = tc.constraint_name
+             AND k.table_name = tc.table_name
+            WHERE tc.table_schema = ? AND LOWER(tc.table_name) = 'users' AND tc.constraint_type = 'UNIQUE'
+            GROUP BY tc.constraint_name
+            HAVING COUNT(*) = 1 AND MAX(LOWER(k.column_name)) = 'email'
+            """;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        // MySQL reports the database as the catalog, H2 as a schema inside it
+        String schema = connection.getSchema() != null ? connection.getSchema() : connection.getCatalog();
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement find = connection.prepareStatement(FIND)) {
+            find.setString(1, schema);
+            try (ResultSet rs = find.executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                }
+            }
+        }
+        try (Statement drop = connection.createStatement()) {
+            for (String name : names) {
+                drop.execute("ALTER TABLE users DROP CONSTRAINT `" + name.replace("`", "``") + "`");
+            }
+        }
+    }
+}
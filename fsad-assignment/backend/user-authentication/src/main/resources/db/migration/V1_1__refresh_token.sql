@@ -0,0 +1,15 @@
+-- Rotating refresh tokens (POST /api/users/refresh). Only the SHA-256 of a token is stored;
+-- a family is one login's chain of rotations, revoked together when a used token comes back.
+
+CREATE TABLE refresh_token (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT,
+    token_hash VARCHAR(64),
+    family_id VARCHAR(36),
+    expires_at DATETIME(6),
+    created_at DATETIME(6),
+    revoked BIT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_token_hash UNIQUE (token_hash)
+);
+CREATE INDEX idx_refresh_token_family ON refresh_token (family_id);
@@ -0,0 +1,16 @@
+-- Cluster membership (each node heartbeats its row; ClusterMembership shards jobs over the live
+-- ones) and named leases for jobs that must run on exactly one node (LeaseService).
+
+CREATE TABLE cluster_node (
+    node_id VARCHAR(100) NOT NULL,
+    started_at DATETIME(6),
+    last_heartbeat DATETIME(6),
+    PRIMARY KEY (node_id)
+);
+
+CREATE TABLE scheduler_lease (
+    name VARCHAR(100) NOT NULL,
+    owner VARCHAR(100),
+    expires_at DATETIME(6),
+    PRIMARY KEY (name)
+);
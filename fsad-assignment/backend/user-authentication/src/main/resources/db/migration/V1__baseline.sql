@@ -0,0 +1,51 @@
+-- The four tables of the first release, as Hibernate generated them with ddl-auto=update.
+-- Databases from that release are baselined at version 0 (spring.flyway.baseline-on-migrate)
+-- and run this too, so every table is IF NOT EXISTS; the tables added since then come in
+-- their own migrations. Kept to syntax H2's MySQL mode also accepts (see FlywayMigrationTest).
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    role VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS equipment (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    category VARCHAR(255),
+    condition_description VARCHAR(255),
+    total_quantity INTEGER,
+    available_quantity INTEGER,
+    description VARCHAR(255),
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS borrow_request (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT,
+    equipment_id BIGINT,
+    quantity_requested INTEGER,
+    start_date DATE,
+    end_date DATE,
+    status ENUM('PENDING','APPROVED','REJECTED','ISSUED','RETURNED','CANCELLED'),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    admin_comment VARCHAR(255),
+    overdue BIT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_borrow_request_equipment FOREIGN KEY (equipment_id) REFERENCES equipment (id)
+);
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    loan_id BIGINT,
+    message VARCHAR(255),
+    created_at DATETIME(6),
+    read_flag BIT NOT NULL,
+    PRIMARY KEY (id)
+);
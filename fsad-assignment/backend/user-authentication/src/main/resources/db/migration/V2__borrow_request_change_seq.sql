@@ -0,0 +1,18 @@
+-- Change feed for borrow requests: every insert/update stamps change_seq from the
+-- 'borrow_request' counter, and clients sync with "give me change_seq > cursor".
+
+CREATE TABLE change_sequence (
+    name VARCHAR(100) NOT NULL,
+    seq_value BIGINT NOT NULL,
+    PRIMARY KEY (name)
+);
+
+ALTER TABLE borrow_request ADD COLUMN change_seq BIGINT;
+
+-- existing rows are ordered by id; the counter continues after them
+UPDATE borrow_request SET change_seq = id;
+INSERT INTO change_sequence (name, seq_value)
+SELECT 'borrow_request', COALESCE(MAX(id), 0) FROM borrow_request;
+
+CREATE INDEX idx_borrow_request_change_seq ON borrow_request (change_seq);
+CREATE INDEX idx_borrow_request_user_change_seq ON borrow_request (user_id, change_seq);
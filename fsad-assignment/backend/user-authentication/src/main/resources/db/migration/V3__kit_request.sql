@@ -0,0 +1,17 @@
+-- Multi-item requests: a kit_request header, its lines are borrow_request rows with kit_id set.
+
+CREATE TABLE kit_request (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT,
+    start_date DATE,
+    end_date DATE,
+    status ENUM('PENDING','APPROVED','REJECTED','ISSUED','RETURNED','CANCELLED'),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    admin_comment VARCHAR(255),
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_kit_request_user ON kit_request (user_id);
+
+ALTER TABLE borrow_request ADD COLUMN kit_id BIGINT;
+CREATE INDEX idx_borrow_request_kit ON borrow_request (kit_id);
@@ -0,0 +1,27 @@
+-- Closed borrow requests older than archive.horizon move here in chunks (BorrowArchiver), so
+-- borrow_request only holds live loans. A separate table rather than partitions: InnoDB does
+-- not allow foreign keys on partitioned tables, and borrow_request references equipment.
+-- No foreign key here either, archived rows may outlive their equipment.
+
+CREATE TABLE borrow_request_archive (
+    id BIGINT NOT NULL,
+    user_id BIGINT,
+    equipment_id BIGINT,
+    kit_id BIGINT,
+    quantity_requested INTEGER,
+    start_date DATE,
+    end_date DATE,
+    status ENUM('PENDING','APPROVED','REJECTED','ISSUED','RETURNED','CANCELLED'),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    admin_comment VARCHAR(255),
+    overdue BIT NOT NULL,
+    change_seq BIGINT,
+    archived_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_borrow_request_archive_user ON borrow_request_archive (user_id);
+CREATE INDEX idx_borrow_request_archive_start ON borrow_request_archive (start_date);
+
+-- the archiver's scan, and findByStatus / findByStatusIn
+CREATE INDEX idx_borrow_request_status ON borrow_request (status, updated_at);
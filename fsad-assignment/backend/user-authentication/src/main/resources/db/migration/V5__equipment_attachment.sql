@@ -0,0 +1,16 @@
+-- Photos and manuals for equipment. The bytes live in the content-addressed file store
+-- (attachments.dir) under their SHA-256; identical uploads share one file.
+
+CREATE TABLE equipment_attachment (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    equipment_id BIGINT,
+    filename VARCHAR(255),
+    content_type VARCHAR(100),
+    size BIGINT NOT NULL,
+    sha256 VARCHAR(64),
+    thumbnail_sha256 VARCHAR(64),
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_equipment_attachment_equipment ON equipment_attachment (equipment_id);
+CREATE INDEX idx_equipment_attachment_sha ON equipment_attachment (sha256);
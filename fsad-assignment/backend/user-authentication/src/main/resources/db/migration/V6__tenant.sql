@@ -0,0 +1,21 @@
+-- Tenants (campuses / labs) share these tables, told apart by tenant_id; Hibernate adds the
+-- tenant_id predicate to every query (@TenantId). Rows that exist already belong to 'default',
+-- the tenant of requests that do not name one. Tenants placed in a dedicated database
+-- (app.tenants.placement) get the same schema there.
+
+ALTER TABLE users ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE equipment ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE borrow_request ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE notifications ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE refresh_token ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE kit_request ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE borrow_request_archive ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE equipment_attachment ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+
+-- the same address may sign up at two campuses; V6_1 drops the old unique key on email alone,
+-- whose name differs between databases created by V1 and by ddl-auto=update
+ALTER TABLE users ADD CONSTRAINT uk_users_tenant_email UNIQUE (tenant_id, email);
+
+-- catalog listing and the staff queue feeds filter on tenant first
+CREATE INDEX idx_equipment_tenant ON equipment (tenant_id);
+CREATE INDEX idx_borrow_request_tenant_change_seq ON borrow_request (tenant_id, change_seq);
@@ -0,0 +1,108 @@
+package com.auth.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.Equipment;
+import com.auth.repository.ArchivedBorrowRequestRepository;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.NotificationRepository;
+
+/**
+ * Only closed rows past the horizon leave the live table, and history reads
+ * see them again only when archived data is asked for.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = { "archive.chunk-size=2", "archive.pause-between-chunks=0ms" })
+class BorrowArchiverTest {
+
+	private static final Long STUDENT = 1L;
+
+	@Autowired
+	private BorrowArchiver archiver;
+
+	@Autowired
+	private BorrowHistoryService history;
+
+	@Autowired
+	private BorrowRequestRepository brRepo;
+
+	@Autowired
+	private ArchivedBorrowRequestRepository archiveRepo;
+
+	@Autowired
+	private EquipmentRepository equipmentRepo;
+
+	@Autowired
+	private NotificationRepository notificationRepo;
+
+	private Equipment equipment;
+
+	@BeforeEach
+	void seed() {
+		brRepo.deleteAll();
+		archiveRepo.deleteAll();
+		notificationRepo.deleteAll();
+		equipmentRepo.deleteAll();
+
+		Equipment e = new Equipment();
+		e.setName("Multimeter, digital");
+		e.setTotalQuantity(10);
+		e.setAvailableQuantity(10);
+		equipment = equipmentRepo.save(e);
+	}
+
+	@Test
+	void movesOnlyOldClosedRows() throws Exception {
+		Instant old = Instant.now().minus(200, ChronoUnit.DAYS);
+		for (int i = 0; i < 5; i++) {
+			loan(BorrowStatus.RETURNED, old);
+		}
+		loan(BorrowStatus.REJECTED, Instant.now());  // closed but recent
+		loan(BorrowStatus.ISSUED, old);              // old but still open
+
+		assertEquals(5, archiver.archive(Instant.now().minus(90, ChronoUnit.DAYS)));
+
+		assertEquals(2, brRepo.findByUserId(STUDENT).size());
+		assertEquals(7, history.getRequestsByUser(STUDENT).size());
+		assertTrue(history.getRequestsByUser(STUDENT).stream()
+				.allMatch(br -> br.getEquipment() != null && br.getEquipment().getId().equals(equipment.getId())));
+
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		history.exportCsv(LocalDate.now().minusYears(1), LocalDate.now().plusYears(1), true, csv);
+		List<String> lines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+		assertEquals(8, lines.size());
+		assertTrue(lines.get(1).contains("\"Multimeter, digital\""));
+	}
+
+	private void loan(BorrowStatus status, Instant updatedAt) {
+		BorrowRequest br = new BorrowRequest();
+		br.setUserId(STUDENT);
+		br.setEquipment(equipment);
+		br.setQuantityRequested(1);
+		br.setStartDate(LocalDate.now().minusDays(10));
+		br.setEndDate(LocalDate.now().minusDays(5));
+		br.setStatus(status);
+		br.setCreatedAt(updatedAt);
+		br.setUpdatedAt(updatedAt);
+		brRepo.save(br);
+	}
+}
@@ -0,0 +1,63 @@
+package com.auth.attachment;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+class AttachmentStoreTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void identicalUploadsAreStoredOnce() throws Exception {
+		AttachmentStore store = new AttachmentStore(dir, DataSize.ofKilobytes(1));
+		byte[] manual = "operating manual".getBytes(StandardCharsets.UTF_8);
+
+		AttachmentStore.Stored first = store.store(new ByteArrayInputStream(manual));
+		AttachmentStore.Stored second = store.store(new ByteArrayInputStream(manual));
+
+		assertEquals(first, second);
+		assertEquals(manual.length, first.size());
+		assertArrayEquals(manual, Files.readAllBytes(store.path(first.sha256())));
+		try (Stream<Path> files = Files.walk(dir)) {
+			assertEquals(1, files.filter(Files::isRegularFile).count());
+		}
+	}
+
+	@Test
+	void oversizedUploadIsRejectedAndLeavesNothingBehind() throws Exception {
+		AttachmentStore store = new AttachmentStore(dir, DataSize.ofBytes(10));
+
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+				() -> store.store(new ByteArrayInputStream(new byte[11])));
+		assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatusCode());
+		try (Stream<Path> files = Files.walk(dir)) {
+			assertEquals(0, files.filter(Files::isRegularFile).count());
+		}
+	}
+
+	@Test
+	void parsesSingleByteRanges() {
+		assertArrayEquals(new long[] { 0, 99 }, FileResponses.parseRange("bytes=0-99", 1000));
+		assertArrayEquals(new long[] { 900, 999 }, FileResponses.parseRange("bytes=900-", 1000));
+		assertArrayEquals(new long[] { 990, 999 }, FileResponses.parseRange("bytes=-10", 1000));
+		assertArrayEquals(new long[] { 500, 999 }, FileResponses.parseRange("bytes=500-5000", 1000));
+		assertNull(FileResponses.parseRange("bytes=1000-", 1000));
+		// several ranges: the whole file instead
+		assertArrayEquals(new long[0], FileResponses.parseRange("bytes=0-1,5-6", 1000));
+	}
+}
@@ -0,0 +1,69 @@
+package com.auth.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.auth.entity.User;
+import com.auth.security.CustomUserDetails;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BulkheadTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void rejectsOnceFullAndRecoversOnExit() throws Exception {
+		Bulkhead bulkhead = new Bulkhead(Compartment.STUDENT_READ, 2, Duration.ZERO, registry);
+
+		assertTrue(bulkhead.tryEnter());
+		assertTrue(bulkhead.tryEnter());
+		assertFalse(bulkhead.tryEnter());
+		assertEquals(1.0, registry.get("bulkhead.rejected").tag("compartment", "student-read").counter().count());
+
+		bulkhead.exit();
+		assertTrue(bulkhead.tryEnter());
+		assertEquals(0, bulkhead.available());
+	}
+
+	@Test
+	void classifiesByRoleThenMethod() {
+		try {
+			assertEquals(Compartment.AUTH, BulkheadFilter.classify(request("POST", "/api/users/login")));
+			assertEquals(Compartment.STUDENT_READ, BulkheadFilter.classify(request("GET", "/api/equipment")));
+
+			authenticate("STUDENT");
+			assertEquals(Compartment.STUDENT_WRITE, BulkheadFilter.classify(request("POST", "/api/borrow/request")));
+
+			authenticate("STAFF");
+			assertEquals(Compartment.STAFF, BulkheadFilter.classify(request("GET", "/api/equipment")));
+			assertEquals(Compartment.STAFF, BulkheadFilter.classify(request("PUT", "/api/borrow/1/approve")));
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	private static MockHttpServletRequest request(String method, String uri) {
+		return new MockHttpServletRequest(method, uri);
+	}
+
+	private static void authenticate(String role) {
+		User user = new User();
+		user.setEmail(role.toLowerCase() + "@test");
+		user.setRole(role);
+		SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
+		CustomUserDetails details = new CustomUserDetails(user, List.of(authority));
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+	}
+}
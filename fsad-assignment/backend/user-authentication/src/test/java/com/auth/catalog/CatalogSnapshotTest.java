@@ -0,0 +1,78 @@
+package com.auth.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.auth.entity.Equipment;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.NotificationRepository;
+import com.auth.tenant.TenantContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The list JSON joined from the item JSON is the same array a full
+ * serialization would give, and a large list is kept gzipped alongside it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogSnapshotTest {
+
+	@Autowired
+	private CatalogSnapshot snapshot;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private BorrowRequestRepository brRepo;
+
+	@Autowired
+	private EquipmentRepository equipmentRepo;
+
+	@Autowired
+	private NotificationRepository notificationRepo;
+
+	@BeforeEach
+	void seed() {
+		brRepo.deleteAll();
+		notificationRepo.deleteAll();
+		equipmentRepo.deleteAll();
+
+		for (int i = 0; i < 40; i++) {
+			Equipment e = new Equipment();
+			e.setName("Oscilloscope " + i);
+			e.setCategory("Electronics");
+			e.setDescription("Two-channel 100 MHz digital storage oscilloscope with probes");
+			e.setTotalQuantity(5);
+			e.setAvailableQuantity(5);
+			equipmentRepo.save(e);
+		}
+	}
+
+	@Test
+	void listIsTheItemsAsOneArrayAndIsKeptGzipped() throws Exception {
+		snapshot.refresh();
+		CatalogSnapshot.View view = snapshot.current(TenantContext.DEFAULT_TENANT);
+
+		JsonNode list = objectMapper.readTree(view.listJson());
+		assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(equipmentRepo.findAll())), list);
+		assertEquals(40, list.size());
+
+		assertNotNull(view.listGzip());
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(view.listGzip()))) {
+			assertArrayEquals(view.listJson(), in.readAllBytes());
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.auth.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.Equipment;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.NotificationRepository;
+import com.auth.service.BorrowRequestService;
+import com.auth.service.JwtService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The catalog port over real HTTP (catalog.reactive.port=0 in the test
+ * profile): tokens are checked, bad input is refused, and availability from
+ * the snapshot matches what approvals check against in SQL.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReactiveCatalogServerTest {
+
+	private static final LocalDate DAY = LocalDate.now().plusDays(10);
+
+	@Autowired
+	private ReactiveCatalogServer server;
+
+	@Autowired
+	private CatalogSnapshot snapshot;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private BorrowRequestService borrowService;
+
+	@Autowired
+	private BorrowRequestRepository brRepo;
+
+	@Autowired
+	private EquipmentRepository equipmentRepo;
+
+	@Autowired
+	private NotificationRepository notificationRepo;
+
+	private final HttpClient http = HttpClient.newHttpClient();
+
+	private String token;
+
+	private Long equipmentId;
+
+	@BeforeEach
+	void seed() {
+		brRepo.deleteAll();
+		notificationRepo.deleteAll();
+		equipmentRepo.deleteAll();
+
+		Equipment e = new Equipment();
+		e.setName("Spectrometer");
+		e.setTotalQuantity(10);
+		e.setAvailableQuantity(10);
+		equipmentId = equipmentRepo.save(e).getId();
+		token = jwtService.generateToken("student@test", "Student", "STUDENT");
+	}
+
+	@Test
+	void refusesRequestsWithoutAValidToken() throws Exception {
+		snapshot.refresh();
+		assertEquals(401, get("/api/catalog/equipment", null).statusCode());
+		assertEquals(401, get("/api/catalog/equipment", "not-a-jwt").statusCode());
+		assertEquals(401, get("/api/catalog/equipment", token.substring(0, token.length() - 2) + "xx").statusCode());
+		assertEquals(200, get("/api/catalog/equipment", token).statusCode());
+	}
+
+	@Test
+	void unknownItemsAreNotFoundAndBadRangesAreRefused() throws Exception {
+		snapshot.refresh();
+		String item = "/api/catalog/equipment/" + equipmentId;
+		assertEquals(200, get(item, token).statusCode());
+		assertEquals(404, get("/api/catalog/equipment/" + (equipmentId + 1000), token).statusCode());
+		assertEquals(404, get("/api/catalog/equipment/abc", token).statusCode());
+		assertEquals(404, get("/api/catalog/equipment/" + (equipmentId + 1000) + "/availability", token).statusCode());
+		assertEquals(400, get(item + "/availability?start=yesterday", token).statusCode());
+		assertEquals(400, get(item + "/availability?start=" + DAY + "&end=" + DAY.minusDays(1), token).statusCode());
+	}
+
+	@Test
+	void availabilityMatchesTheSqlCheck() throws Exception {
+		approve(3, DAY, DAY.plusDays(2));
+		approve(2, DAY.plusDays(2), DAY.plusDays(5));
+		approve(4, DAY.plusDays(7), DAY.plusDays(7));
+		request(5, DAY, DAY.plusDays(7)); // pending: holds nothing
+		snapshot.refresh();
+
+		for (int from = -1; from <= 8; from++) {
+			for (int to = from; to <= 9; to++) {
+				LocalDate start = DAY.plusDays(from);
+				LocalDate end = DAY.plusDays(to);
+				HttpResponse<String> res = get("/api/catalog/equipment/" + equipmentId
+						+ "/availability?start=" + start + "&end=" + end, token);
+				assertEquals(200, res.statusCode());
+				JsonNode body = objectMapper.readTree(res.body());
+				int expected = 10 - brRepo.sumOverlappingQuantities(equipmentId, start, end);
+				assertEquals(expected, body.get("available").asInt(), start + ".." + end);
+			}
+		}
+	}
+
+	private void approve(int qty, LocalDate start, LocalDate end) {
+		borrowService.approveRequest(request(qty, start, end).getId(), 99L, "ok");
+	}
+
+	private BorrowRequest request(int qty, LocalDate start, LocalDate end) {
+		return borrowService.createRequest(1L, equipmentId, qty, start, end);
+	}
+
+	private HttpResponse<String> get(String path, String bearer) throws Exception {
+		HttpRequest.Builder req = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path));
+		if (bearer != null) {
+			req.header("Authorization", "Bearer " + bearer);
+		}
+		return http.send(req.build(), HttpResponse.BodyHandlers.ofString());
+	}
+}
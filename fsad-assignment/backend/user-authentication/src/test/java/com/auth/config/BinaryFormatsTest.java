@@ -0,0 +1,147 @@
+package com.auth.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.auth.entity.Equipment;
+import com.auth.entity.User;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.NotificationRepository;
+import com.auth.repository.RefreshTokenRepository;
+import com.auth.repository.UserRepository;
+import com.auth.service.JwtService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * The equipment list in CBOR and Smile decodes to the same tree as the JSON
+ * one, is smaller, and JSON is what clients get unless they ask otherwise.
+ * With json.binary-formats.enabled=false only JSON is offered.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BinaryFormatsTest {
+
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private UserRepository userRepo;
+
+	@Autowired
+	private EquipmentRepository equipmentRepo;
+
+	@Autowired
+	private BorrowRequestRepository brRepo;
+
+	@Autowired
+	private NotificationRepository notificationRepo;
+
+	@Autowired
+	private RefreshTokenRepository refreshTokenRepo;
+
+	private String token;
+
+	@BeforeEach
+	void seed() {
+		brRepo.deleteAll();
+		notificationRepo.deleteAll();
+		refreshTokenRepo.deleteAll();
+		equipmentRepo.deleteAll();
+		userRepo.deleteAll();
+
+		User u = new User();
+		u.setName("student");
+		u.setEmail("student@test");
+		u.setPassword("unused");
+		u.setRole("STUDENT");
+		userRepo.save(u);
+		token = jwtService.generateToken("student@test", "student", "STUDENT");
+
+		for (int i = 0; i < 20; i++) {
+			Equipment e = new Equipment();
+			e.setName("Multimeter " + i);
+			e.setCategory("Electronics");
+			e.setTotalQuantity(4);
+			e.setAvailableQuantity(4);
+			equipmentRepo.save(e);
+		}
+	}
+
+	@Test
+	void binaryEncodingsCarryTheSameListInFewerBytes() throws Exception {
+		MvcResult json = list(MediaType.ALL);
+		assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(contentType(json)));
+		JsonNode expected = objectMapper.readTree(json.getResponse().getContentAsByteArray());
+		assertEquals(20, expected.size());
+
+		MvcResult cbor = list(MediaType.APPLICATION_CBOR);
+		assertTrue(MediaType.APPLICATION_CBOR.isCompatibleWith(contentType(cbor)));
+		assertEquals(expected, new CBORMapper().readTree(cbor.getResponse().getContentAsByteArray()));
+
+		MvcResult smile = list(SMILE);
+		assertTrue(SMILE.isCompatibleWith(contentType(smile)));
+		assertEquals(expected, new SmileMapper().readTree(smile.getResponse().getContentAsByteArray()));
+
+		int jsonBytes = json.getResponse().getContentAsByteArray().length;
+		assertTrue(cbor.getResponse().getContentAsByteArray().length < jsonBytes);
+		assertTrue(smile.getResponse().getContentAsByteArray().length < jsonBytes);
+	}
+
+	@Nested
+	@TestPropertySource(properties = "json.binary-formats.enabled=false")
+	class Disabled {
+
+		// this context's MockMvc, the outer field belongs to the context with the formats on
+		@Autowired
+		private MockMvc disabledMvc;
+
+		@Test
+		void onlyJsonIsOffered() throws Exception {
+			for (MediaType binary : new MediaType[] { MediaType.APPLICATION_CBOR, SMILE }) {
+				disabledMvc.perform(get("/api/equipment").accept(binary).header("Authorization", "Bearer " + token))
+						.andExpect(status().isNotAcceptable());
+			}
+			MvcResult json = disabledMvc.perform(get("/api/equipment").header("Authorization", "Bearer " + token))
+					.andExpect(status().isOk())
+					.andReturn();
+			assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(contentType(json)));
+		}
+	}
+
+	private MvcResult list(MediaType accept) throws Exception {
+		return mvc.perform(get("/api/equipment").accept(accept).header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andReturn();
+	}
+
+	private static MediaType contentType(MvcResult result) {
+		return MediaType.parseMediaType(result.getResponse().getContentType());
+	}
+}
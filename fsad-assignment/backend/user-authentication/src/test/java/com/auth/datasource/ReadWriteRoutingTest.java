@@ -0,0 +1,94 @@
+package com.auth.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auth.repository.RefreshTokenRepository;
+import com.auth.repository.UserRepository;
+
+/**
+ * Routing against two in-memory databases: the second one plays the replica.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:fsad_routing_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"app.datasource.replica.url=jdbc:h2:mem:fsad_routing_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"app.datasource.replica.username=sa",
+		"app.datasource.replica.check-lag=false"
+})
+@ActiveProfiles("test")
+class ReadWriteRoutingTest {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ReplicaLagMonitor replicaLag;
+
+	@Autowired
+	private UserRepository userRepo;
+
+	@Autowired
+	private RefreshTokenRepository refreshTokenRepo;
+
+	@AfterEach
+	void resetLag() {
+		replicaLag.update(0L);
+	}
+
+	@Test
+	void readOnlyTransactionsUseTheReplica() {
+		assertTrue(urlIn(true).contains("fsad_routing_replica"));
+	}
+
+	@Test
+	void readWriteTransactionsUseThePrimary() {
+		assertTrue(urlIn(false).contains("fsad_routing_primary"));
+	}
+
+	@Test
+	void laggingReplicaFallsBackToThePrimary() {
+		replicaLag.update(60L);
+		assertTrue(urlIn(true).contains("fsad_routing_primary"));
+
+		replicaLag.update(null); // replication stopped
+		assertTrue(urlIn(true).contains("fsad_routing_primary"));
+	}
+
+	@Test
+	void authLookupsUseThePrimary() {
+		// the replica database here has no tables, so any of these would fail there
+		assertFalse(userRepo.existsByEmail("nobody@test"));
+		assertTrue(userRepo.findByEmail("nobody@test").isEmpty());
+		assertTrue(refreshTokenRepo.findByTokenHash("none").isEmpty());
+	}
+
+	private String urlIn(boolean readOnly) {
+		TransactionTemplate tx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		tx.setReadOnly(readOnly);
+		return tx.execute(status -> {
+			Connection con = DataSourceUtils.getConnection(dataSource);
+			try {
+				return con.getMetaData().getURL();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			} finally {
+				DataSourceUtils.releaseConnection(con, dataSource);
+			}
+		});
+	}
+}
@@ -0,0 +1,108 @@
+package com.auth.expiry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.Equipment;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.NotificationRepository;
+import com.auth.service.BorrowRequestService;
+
+/**
+ * Stale requests are cancelled by the due-time index, and an approval that
+ * was never collected hands its units to the next waiting request.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExpirySchedulerTest {
+
+	@Autowired
+	private ExpiryScheduler scheduler;
+
+	@Autowired
+	private BorrowRequestService borrowService;
+
+	@Autowired
+	private BorrowRequestRepository brRepo;
+
+	@Autowired
+	private EquipmentRepository equipmentRepo;
+
+	@Autowired
+	private NotificationRepository notificationRepo;
+
+	private Long equipmentId;
+
+	@BeforeEach
+	void seed() {
+		brRepo.deleteAll();
+		notificationRepo.deleteAll();
+		equipmentRepo.deleteAll();
+
+		Equipment e = new Equipment();
+		e.setName("Spectrometer");
+		e.setTotalQuantity(1);
+		e.setAvailableQuantity(1);
+		equipmentId = equipmentRepo.save(e).getId();
+	}
+
+	@Test
+	void expiresStaleRequestsAndReleasesTheirCapacity() throws Exception {
+		LocalDate today = LocalDate.now();
+		// approved for a pickup three days ago and never issued
+		BorrowRequest uncollected = request(today.minusDays(3), today.plusDays(2));
+		borrowService.approveRequest(uncollected.getId(), 99L, "ok");
+		BorrowRequest waiting = request(today, today.plusDays(2));
+		BorrowRequest stale = request(today.plusDays(5), today.plusDays(6));
+		stale.setCreatedAt(Instant.now().minus(Duration.ofDays(8)));
+		brRepo.save(stale);
+		BorrowRequest fresh = request(today.plusDays(5), today.plusDays(6));
+
+		scheduler.resync();
+		scheduler.expireDue();
+
+		assertEquals(List.of(BorrowStatus.CANCELLED, BorrowStatus.CANCELLED),
+				List.of(status(uncollected), status(stale)));
+		// may meanwhile be approved from the waitlist, but not expired
+		assertNotEquals(BorrowStatus.CANCELLED, status(fresh));
+		for (int i = 0; i < 200 && status(waiting) == BorrowStatus.PENDING; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(BorrowStatus.APPROVED, status(waiting));
+	}
+
+	@Test
+	void requestApprovedAfterIndexingIsNotExpiredAsPending() {
+		BorrowRequest br = request(LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+		br.setCreatedAt(Instant.now().minus(Duration.ofDays(8)));
+		brRepo.save(br);
+		scheduler.resync();
+
+		borrowService.approveRequest(br.getId(), 99L, "ok");
+		scheduler.expireDue();
+
+		assertEquals(BorrowStatus.APPROVED, status(br));
+	}
+
+	private BorrowRequest request(LocalDate start, LocalDate end) {
+		return borrowService.createRequest(1L, equipmentId, 1, start, end);
+	}
+
+	private BorrowStatus status(BorrowRequest br) {
+		return brRepo.findById(br.getId()).orElseThrow().getStatus();
+	}
+}
@@ -0,0 +1,72 @@
+package com.auth.load;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, lock-free latency histogram in microseconds. Values below 128 are
+ * exact; above that each power of two is split into 64 buckets, so any
+ * percentile is within ~1.6% of the true value and memory is constant no
+ * matter how long the run is.
+ */
+class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 64;
+    private static final int BUCKETS = 2 * SUB_BUCKETS + 57 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private volatile long max;
+
+    void record(long micros) {
+        long v = Math.max(0, micros);
+        counts.incrementAndGet(index(v));
+        total.increment();
+        if (v > max) {
+            max = v; // racy but monotonic enough for a report
+        }
+    }
+
+    long count() {
+        return total.sum();
+    }
+
+    long max() {
+        return max;
+    }
+
+    /** Value at the given percentile (0-100), in microseconds. */
+    long percentile(double p) {
+        long n = count();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(p / 100.0 * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return valueAt(i);
+            }
+        }
+        return max;
+    }
+
+    private static int index(long v) {
+        if (v < 2 * SUB_BUCKETS) {
+            return (int) v;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(v) - 6; // v >>> shift lands in [64, 127]
+        return shift * SUB_BUCKETS + (int) (v >>> shift);
+    }
+
+    private static long valueAt(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long q = index - (long) shift * SUB_BUCKETS;
+        // upper edge of the bucket, so percentiles never under-report
+        return ((q + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,464 @@
+package com.auth.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.auth.UserAuthenticationApplication;
+import com.auth.catalog.ReactiveCatalogServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * End-to-end load generator. Boots the application on the {@code load} profile
+ * (embedded H2) unless {@code load.target} points at a running instance, seeds
+ * users and equipment through the public API, then runs a weighted mix of
+ * realistic scenarios from {@code load.concurrency} virtual users:
+ *
+ * <ul>
+ *   <li>catalog browsing (list + item detail)</li>
+ *   <li>student request, then staff approve / issue / return</li>
+ *   <li>staff queue views</li>
+ *   <li>login</li>
+ *   <li>overdue check</li>
+ * </ul>
+ *
+ * Prints throughput and p50/p95/p99 latency per endpoint and writes the same
+ * numbers as JSON to the path given as the first argument. With
+ * {@code load.compare-modes=true} it boots one instance on platform threads
+ * and one on virtual threads, runs the same load against each and reports
+ * both, including peak heap and platform thread counts. With
+ * {@code load.scenario=catalog} it compares catalog list reads on the MVC
+ * endpoint against the reactive catalog port at the same concurrency.
+ */
+public class LoadTestHarness {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String PASSWORD = "load-test-password";
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private volatile LatencyHistogram overall = new LatencyHistogram();
+
+    private final List<String> studentTokens = new ArrayList<>();
+    private final List<String> studentEmails = new ArrayList<>();
+    private final List<Long> equipmentIds = new ArrayList<>();
+    private String staffToken;
+
+    LoadTestHarness(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = newClient();
+    }
+
+    private static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("load.concurrency", 100);
+        int durationSeconds = Integer.getInteger("load.duration", 60);
+        int users = Integer.getInteger("load.users", 200);
+        int items = Integer.getInteger("load.items", 50);
+        String target = System.getProperty("load.target", "");
+        Path report = Path.of(args.length > 0 ? args[0] : "target/load-report.json");
+        Duration duration = Duration.ofSeconds(durationSeconds);
+
+        if ("catalog".equals(System.getProperty("load.scenario"))) {
+            if (!target.isBlank()) {
+                throw new IllegalStateException("load.scenario=catalog starts its own instance; leave load.target empty");
+            }
+            compareCatalog(concurrency, duration, users, items, report);
+        } else if (Boolean.getBoolean("load.compare-modes")) {
+            if (!target.isBlank()) {
+                throw new IllegalStateException("load.compare-modes starts its own instances; leave load.target empty");
+            }
+            Map<String, Object> modes = new LinkedHashMap<>();
+            modes.put("platform", measureLocal("--spring.threads.virtual.enabled=false", concurrency, duration, users, items));
+            modes.put("virtual", measureLocal("--spring.threads.virtual.enabled=true", concurrency, duration, users, items));
+            writeComparison(modes, report);
+        } else if (target.isBlank()) {
+            writeReport(measureLocal(null, concurrency, duration, users, items), report);
+        } else {
+            writeReport(measure(target, false, concurrency, duration, users, items), report);
+        }
+    }
+
+    private static Map<String, Object> measureLocal(String modeArg, int concurrency, Duration duration,
+                                                    int users, int items) throws Exception {
+        System.gc(); // start each mode from a comparable heap
+        ConfigurableApplicationContext app = modeArg == null ? startApplication() : startApplication(modeArg);
+        try {
+            String target = "http://localhost:" + ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+            Map<String, Object> result = measure(target, true, concurrency, duration, users, items);
+            result.put("virtualThreads", app.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+            return result;
+        } finally {
+            app.close();
+        }
+    }
+
+    private static Map<String, Object> measure(String target, boolean inProcess, int concurrency, Duration duration,
+                                               int users, int items) throws Exception {
+        LoadTestHarness harness = new LoadTestHarness(target);
+        harness.seed(users, items);
+        harness.resetStats(); // report the measured phase only
+        try (ResourceSampler resources = new ResourceSampler()) {
+            long elapsedNanos = harness.run(concurrency, duration);
+            Map<String, Object> result = harness.summary(elapsedNanos);
+            result.put("concurrency", concurrency);
+            if (inProcess) {
+                // application and generator share this JVM, so these cover both
+                result.put("peakHeapMb", resources.peakHeapMb());
+                result.put("peakPlatformThreads", resources.peakThreads());
+            }
+            return result;
+        }
+    }
+
+    private static void compareCatalog(int concurrency, Duration duration, int users, int items,
+                                       Path report) throws Exception {
+        ConfigurableApplicationContext app = startApplication();
+        try {
+            String mvc = "http://localhost:" + ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+            String reactive = "http://localhost:" + app.getBean(ReactiveCatalogServer.class).port();
+            LoadTestHarness harness = new LoadTestHarness(mvc);
+            harness.seed(users, items);
+            Thread.sleep(1000); // let the catalog snapshot pick up the seeded items
+
+            Map<String, Object> modes = new LinkedHashMap<>();
+            modes.put("mvc", harness.measureCatalog(mvc + "/api/equipment", concurrency, duration));
+            modes.put("reactive", harness.measureCatalog(reactive + "/api/catalog/equipment", concurrency, duration));
+            writeComparison(modes, report);
+        } finally {
+            app.close();
+        }
+    }
+
+    static ConfigurableApplicationContext startApplication(String... extraArgs) {
+        SpringApplication application = new SpringApplication(UserAuthenticationApplication.class);
+        application.setAdditionalProfiles("load");
+        List<String> args = new ArrayList<>(List.of("--server.port=0"));
+        args.addAll(List.of(extraArgs));
+        return application.run(args.toArray(String[]::new));
+    }
+
+    // ---- setup --------------------------------------------------------------
+
+    void seed(int users, int items) throws Exception {
+        String adminToken = signup("load-admin@example.com", "ADMIN");
+        staffToken = signup("load-staff@example.com", "STAFF");
+
+        for (int i = 0; i < items; i++) {
+            String body = JSON.writeValueAsString(Map.of(
+                    "name", "Load item " + i,
+                    "category", "Category " + (i % 5),
+                    "conditionDescription", "Good",
+                    "description", "Equipment created by the load test harness",
+                    "totalQuantity", 1_000_000));
+            JsonNode created = send("POST /api/equipment", post("/api/equipment", body, adminToken));
+            equipmentIds.add(created.get("id").asLong());
+        }
+        for (int i = 0; i < users; i++) {
+            String email = "load-student-" + i + "@example.com";
+            studentEmails.add(email);
+            studentTokens.add(signup(email, "STUDENT"));
+        }
+    }
+
+    private String signup(String email, String role) throws Exception {
+        String body = JSON.writeValueAsString(Map.of("name", email, "email", email, "password", PASSWORD, "role", role));
+        return send("POST /api/users/signup", post("/api/users/signup", body, null)).get("token").asText();
+    }
+
+    // ---- measured phase -----------------------------------------------------
+
+    void resetStats() {
+        stats.clear();
+        overall = new LatencyHistogram();
+    }
+
+    long run(int concurrency, Duration duration) {
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        // one virtual thread per simulated user; close() waits for all of them
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                pool.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        runOneScenario();
+                    }
+                });
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /** Every virtual user repeatedly GETs the one URL; each in-flight request holds its own connection. */
+    Map<String, Object> measureCatalog(String url, int concurrency, Duration duration) throws Exception {
+        resetStats();
+        String token = studentTokens.get(0);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        // a client of its own, closed afterwards: idle connections from one mode must not
+        // hold file descriptors while the next one runs
+        try (ResourceSampler resources = new ResourceSampler(); HttpClient client = newClient()) {
+            long start = System.nanoTime();
+            long deadline = start + duration.toNanos();
+            try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < concurrency; i++) {
+                    pool.submit(() -> {
+                        while (System.nanoTime() < deadline) {
+                            try {
+                                send(client, "GET catalog list", request);
+                            } catch (Exception e) {
+                                // counted as an error
+                            }
+                        }
+                    });
+                }
+            }
+            Map<String, Object> result = summary(System.nanoTime() - start);
+            result.put("concurrency", concurrency);
+            result.put("peakHeapMb", resources.peakHeapMb());
+            result.put("peakPlatformThreads", resources.peakThreads());
+            return result;
+        }
+    }
+
+    private void runOneScenario() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int pick = rnd.nextInt(100);
+        int student = rnd.nextInt(studentTokens.size());
+        String token = studentTokens.get(student);
+        try {
+            if (pick < 55) {
+                browseCatalog(token, rnd);
+            } else if (pick < 80) {
+                borrowLifecycle(token, rnd);
+            } else if (pick < 90) {
+                staffQueues();
+            } else if (pick < 99) {
+                login(studentEmails.get(student));
+            } else {
+                overdueCheck();
+            }
+        } catch (Exception e) {
+            // already counted as an error on the endpoint; keep the user going
+        }
+    }
+
+    private void browseCatalog(String token, ThreadLocalRandom rnd) throws Exception {
+        send("GET /api/equipment", get("/api/equipment", token));
+        long id = equipmentIds.get(rnd.nextInt(equipmentIds.size()));
+        send("GET /api/equipment/{id}", get("/api/equipment/" + id, token));
+    }
+
+    private void borrowLifecycle(String token, ThreadLocalRandom rnd) throws Exception {
+        LocalDate start = LocalDate.now().plusDays(rnd.nextInt(1, 30));
+        String body = JSON.writeValueAsString(Map.of(
+                "equipmentId", equipmentIds.get(rnd.nextInt(equipmentIds.size())),
+                "quantity", 1,
+                "startDate", start.toString(),
+                "endDate", start.plusDays(7).toString()));
+        JsonNode created = send("POST /api/borrow/request", post("/api/borrow/request", body, token));
+        long id = created.get("id").asLong();
+
+        send("GET /api/borrow/my", get("/api/borrow/my", token));
+        send("PUT /api/borrow/{id}/approve", put("/api/borrow/" + id + "/approve", "{\"comment\":\"ok\"}", staffToken));
+        send("PUT /api/borrow/{id}/issue", put("/api/borrow/" + id + "/issue", "{}", staffToken));
+        send("PUT /api/borrow/{id}/return", put("/api/borrow/" + id + "/return", "{}", staffToken));
+    }
+
+    private void staffQueues() throws Exception {
+        send("GET /api/borrow/pending", get("/api/borrow/pending", staffToken));
+        send("GET /api/borrow/issued", get("/api/borrow/issued", staffToken));
+    }
+
+    private void login(String email) throws Exception {
+        String body = JSON.writeValueAsString(Map.of("email", email, "password", PASSWORD));
+        send("POST /api/users/login", post("/api/users/login", body, null));
+    }
+
+    private void overdueCheck() throws Exception {
+        send("GET /api/notifications/runcheck", get("/api/notifications/runcheck", staffToken));
+        send("GET /api/notifications/overdue", get("/api/notifications/overdue", staffToken));
+    }
+
+    // ---- HTTP plumbing ------------------------------------------------------
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            b.header("Authorization", "Bearer " + token);
+        }
+        return b;
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        return request(path, token).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest put(String path, String body, String token) {
+        return request(path, token).PUT(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    /** Sends the request, records latency under the endpoint name and returns the parsed body. */
+    private JsonNode send(String endpoint, HttpRequest request) throws IOException, InterruptedException {
+        return send(http, endpoint, request);
+    }
+
+    private JsonNode send(HttpClient client, String endpoint, HttpRequest request)
+            throws IOException, InterruptedException {
+        Stats s = stats.computeIfAbsent(endpoint, k -> new Stats());
+        long t0 = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            s.error(e.getClass().getSimpleName() + ": " + e.getMessage());
+            throw e;
+        } finally {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - t0);
+            s.latency.record(micros);
+            overall.record(micros);
+        }
+        if (response.statusCode() / 100 != 2) {
+            s.error("HTTP " + response.statusCode());
+            throw new IOException(endpoint + " -> HTTP " + response.statusCode());
+        }
+        byte[] body = response.body();
+        return body.length == 0 ? JSON.nullNode() : JSON.readTree(body);
+    }
+
+    // ---- reporting ----------------------------------------------------------
+
+    Map<String, Object> summary(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        new TreeMap<>(stats).forEach((name, s) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", s.latency.count());
+            row.put("errors", s.errors.sum());
+            row.put("throughputPerSec", Math.round(s.latency.count() / seconds * 10) / 10.0);
+            row.put("p50Ms", s.latency.percentile(50) / 1000.0);
+            row.put("p95Ms", s.latency.percentile(95) / 1000.0);
+            row.put("p99Ms", s.latency.percentile(99) / 1000.0);
+            row.put("maxMs", s.latency.max() / 1000.0);
+            if (!s.causes.isEmpty()) {
+                Map<String, Long> causes = new TreeMap<>();
+                s.causes.forEach((cause, n) -> causes.put(cause, n.sum()));
+                row.put("errorCauses", causes);
+            }
+            endpoints.put(name, row);
+        });
+        long total = stats.values().stream().mapToLong(s -> s.latency.count()).sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("durationSec", Math.round(seconds * 10) / 10.0);
+        result.put("totalRequests", total);
+        result.put("totalThroughputPerSec", Math.round(total / seconds * 10) / 10.0);
+        result.put("p50Ms", overall.percentile(50) / 1000.0);
+        result.put("p95Ms", overall.percentile(95) / 1000.0);
+        result.put("p99Ms", overall.percentile(99) / 1000.0);
+        result.put("endpoints", endpoints);
+        return result;
+    }
+
+    static void writeReport(Map<String, Object> result, Path file) throws IOException {
+        printTable(result);
+        write(result, file);
+    }
+
+    static void writeComparison(Map<String, Object> modes, Path file) throws IOException {
+        modes.forEach((mode, result) -> {
+            System.out.printf("%n== %s ==", mode);
+            printTable(castMap(result));
+        });
+        System.out.printf("%n%-10s %12s %9s %9s %12s %16s%n",
+                "mode", "req/s", "p95 ms", "p99 ms", "peak heap MB", "platform threads");
+        modes.forEach((mode, r) -> {
+            Map<String, Object> result = castMap(r);
+            System.out.printf("%-10s %12.1f %9.2f %9.2f %12.1f %16d%n", mode,
+                    result.get("totalThroughputPerSec"), result.get("p95Ms"), result.get("p99Ms"),
+                    result.get("peakHeapMb"), result.get("peakPlatformThreads"));
+        });
+        write(modes, file);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printTable(Map<String, Object> result) {
+        System.out.printf("%n%-34s %9s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+        ((Map<String, Map<String, Object>>) result.get("endpoints")).forEach((name, row) ->
+                System.out.printf("%-34s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", name,
+                        row.get("requests"), row.get("errors"), row.get("throughputPerSec"),
+                        row.get("p50Ms"), row.get("p95Ms"), row.get("p99Ms")));
+        ((Map<String, Map<String, Object>>) result.get("endpoints")).forEach((name, row) -> {
+            if (row.containsKey("errorCauses")) {
+                System.out.printf("  %s errors: %s%n", name, row.get("errorCauses"));
+            }
+        });
+        System.out.printf("total: %d requests, %.1f req/s over %.1fs with %d virtual users%n",
+                result.get("totalRequests"), result.get("totalThroughputPerSec"), result.get("durationSec"),
+                result.get("concurrency"));
+        if (result.containsKey("peakHeapMb")) {
+            System.out.printf("peak heap %.1f MB, peak platform threads %d%n",
+                    result.get("peakHeapMb"), result.get("peakPlatformThreads"));
+        }
+    }
+
+    private static void write(Object result, Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        JSON.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), result);
+        System.out.println("report written to " + file.toAbsolutePath());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object o) {
+        return (Map<String, Object>) o;
+    }
+
+    private static final class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final Map<String, LongAdder> causes = new ConcurrentHashMap<>();
+
+        void error(String cause) {
+            errors.increment();
+            causes.computeIfAbsent(cause, k -> new LongAdder()).increment();
+        }
+    }
+}
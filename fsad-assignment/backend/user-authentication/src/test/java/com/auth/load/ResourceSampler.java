@@ -0,0 +1,47 @@
+package com.auth.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Samples heap use and live platform threads of this JVM while a run is in
+ * progress. Only meaningful when the application runs in-process, i.e. no
+ * {@code load.target}.
+ */
+class ResourceSampler implements AutoCloseable {
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final Thread sampler;
+    private volatile long peakHeapBytes;
+    private volatile int peakThreads;
+
+    ResourceSampler() {
+        sampler = Thread.ofPlatform().daemon().name("resource-sampler").start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeapBytes = Math.max(peakHeapBytes, memory.getHeapMemoryUsage().getUsed());
+                peakThreads = Math.max(peakThreads, threads.getThreadCount()); // platform threads only
+                try {
+                    Thread.sleep(250);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    double peakHeapMb() {
+        return Math.round(peakHeapBytes / 1024.0 / 1024.0 * 10) / 10.0;
+    }
+
+    int peakThreads() {
+        return peakThreads;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        sampler.interrupt();
+        sampler.join();
+    }
+}
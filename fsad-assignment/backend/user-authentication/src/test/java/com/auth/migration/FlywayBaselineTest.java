@@ -0,0 +1,87 @@
+package com.auth.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * A database last run on the first release: the four tables ddl-auto=update
+ * made then (with Hibernate's constraint names), data, and no Flyway history.
+ * It is baselined at 0, picks up every table and column added since, and then
+ * passes ddl-auto=validate.
+ */
+@SpringBootTest(properties = {
+		"spring.flyway.enabled=true",
+		"spring.jpa.hibernate.ddl-auto=validate" })
+@ActiveProfiles("test")
+class FlywayBaselineTest {
+
+	private static final String URL = "jdbc:h2:mem:fsad_baseline;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	// as Hibernate's update created them on MySQL for the first release's entities
+	private static final String[] FIRST_RELEASE = {
+		"""
+		create table users (id bigint not null auto_increment, email varchar(255), name varchar(255),
+		password varchar(255), role varchar(255), primary key (id))""",
+		"alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email)",
+		"""
+		create table equipment (id bigint not null auto_increment, available_quantity integer,
+		category varchar(255), condition_description varchar(255), created_at datetime(6),
+		description varchar(255), name varchar(255), total_quantity integer, primary key (id))""",
+		"""
+		create table borrow_request (id bigint not null auto_increment, admin_comment varchar(255),
+		created_at datetime(6), end_date date, overdue bit not null, quantity_requested integer,
+		start_date date, status enum ('PENDING','APPROVED','REJECTED','ISSUED','RETURNED','CANCELLED'),
+		updated_at datetime(6), user_id bigint, equipment_id bigint, primary key (id))""",
+		"""
+		alter table borrow_request add constraint FKbfcm3eyb0j0tv4qdiyt8h6oej
+		foreign key (equipment_id) references equipment (id)""",
+		"""
+		create table notifications (id bigint not null auto_increment, created_at datetime(6),
+		loan_id bigint, message varchar(255), read_flag bit not null, primary key (id))""",
+		"insert into users (email, name, password, role) values ('old@test', 'old', 'x', 'STUDENT')",
+		"insert into equipment (name, total_quantity, available_quantity) values ('Microscope', 2, 2)",
+		"""
+		insert into borrow_request (user_id, equipment_id, quantity_requested, status, overdue)
+		values (1, 1, 1, 'ISSUED', false)"""
+	};
+
+	@DynamicPropertySource
+	static void firstReleaseDatabase(DynamicPropertyRegistry registry) throws SQLException {
+		try (Connection c = DriverManager.getConnection(URL, "sa", ""); Statement s = c.createStatement()) {
+			for (String sql : FIRST_RELEASE) {
+				s.execute(sql);
+			}
+		}
+		registry.add("spring.datasource.url", () -> URL);
+	}
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void firstReleaseDatabaseIsBaselinedAndMigrated() {
+		assertEquals("0", flyway.info().applied()[0].getVersion().getVersion());
+		assertEquals(0, flyway.info().pending().length);
+
+		assertEquals("default", jdbc.queryForObject("select tenant_id from users where email = 'old@test'", String.class));
+		assertEquals(1L, jdbc.queryForObject("select change_seq from borrow_request", Long.class));
+		// the old single-column key is gone: the same address can exist in another tenant
+		jdbc.update("insert into users (email, name, role, tenant_id) values ('old@test', 'old', 'STUDENT', 'north')");
+	}
+}
@@ -0,0 +1,31 @@
+package com.auth.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The other tests let Hibernate build the schema. Here an empty H2 database
+ * (MySQL mode) is built by the Flyway migrations instead, and the context
+ * only starts if ddl-auto=validate finds every entity's tables and columns.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:fsad_flyway;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.flyway.enabled=true",
+		"spring.jpa.hibernate.ddl-auto=validate" })
+@ActiveProfiles("test")
+class FlywayMigrationTest {
+
+	@Autowired
+	private Flyway flyway;
+
+	@Test
+	void emptyDatabaseIsMigratedToTheMappedSchema() {
+		assertEquals(0, flyway.info().pending().length);
+		assertEquals("1", flyway.info().applied()[0].getVersion().getVersion());
+	}
+}
@@ -0,0 +1,226 @@
+package com.auth.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.Equipment;
+import com.auth.entity.Notification;
+import com.auth.entity.User;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.NotificationRepository;
+import com.auth.repository.RefreshTokenRepository;
+import com.auth.repository.UserRepository;
+import com.auth.service.BorrowChangeFeedService;
+import com.auth.service.BorrowRequestService;
+import com.auth.service.JwtService;
+import com.auth.service.PasswordHashingService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Exact SQL statement counts per endpoint. Every authenticated request costs
+ * one query for the user lookup in JwtAuthFilter; list endpoints must load
+ * their rows (and the equipment they serialize) in one more, however many
+ * rows there are. A lazy association slipping back in shows up here as N+1.
+ * Counts are taken with a cold second-level cache unless a test warms it.
+ * Async requests count the statements of the work they hand to other threads
+ * (the hashing pool, long-poll fetches) too.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryCountTest {
+
+	private static final int ROWS = 5;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private UserRepository userRepo;
+
+	@Autowired
+	private EquipmentRepository equipmentRepo;
+
+	@Autowired
+	private BorrowRequestRepository brRepo;
+
+	@Autowired
+	private NotificationRepository notificationRepo;
+
+	@Autowired
+	private RefreshTokenRepository refreshTokenRepo;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Autowired
+	private PasswordHashingService passwordHasher;
+
+	@Autowired
+	private BorrowRequestService borrowService;
+
+	@Autowired
+	private BorrowChangeFeedService changeFeed;
+
+	private Long studentId;
+	private String studentToken;
+	private String staffToken;
+	private String adminToken;
+	private Long equipmentId;
+
+	@BeforeEach
+	void seed() {
+		brRepo.deleteAll();
+		notificationRepo.deleteAll();
+		refreshTokenRepo.deleteAll();
+		equipmentRepo.deleteAll();
+		userRepo.deleteAll();
+
+		User student = user("student@test", "STUDENT");
+		student.setPassword(passwordHasher.encode("pw").join());
+		studentId = userRepo.save(student).getId();
+		userRepo.save(user("staff@test", "STAFF"));
+		userRepo.save(user("admin@test", "ADMIN"));
+		studentToken = jwtService.generateToken("student@test", "student", "STUDENT");
+		staffToken = jwtService.generateToken("staff@test", "staff", "STAFF");
+		adminToken = jwtService.generateToken("admin@test", "admin", "ADMIN");
+
+		BorrowStatus[] statuses = { BorrowStatus.PENDING, BorrowStatus.APPROVED, BorrowStatus.ISSUED };
+		for (int i = 0; i < ROWS; i++) {
+			// one equipment row per request, so lazy loading would not be hidden by the session cache
+			Equipment e = new Equipment();
+			e.setName("Item " + i);
+			e.setCategory("Test");
+			e.setTotalQuantity(10);
+			e.setAvailableQuantity(10);
+			e = equipmentRepo.save(e);
+			equipmentId = e.getId();
+
+			BorrowRequest br = new BorrowRequest();
+			br.setUserId(studentId);
+			br.setEquipment(e);
+			br.setQuantityRequested(1);
+			br.setStartDate(LocalDate.now().minusDays(3));
+			br.setEndDate(LocalDate.now().minusDays(1));
+			br.setStatus(statuses[i % statuses.length]);
+			brRepo.save(br);
+
+			Notification n = new Notification();
+			n.setLoanId(br.getId());
+			n.setMessage("overdue");
+			n.setCreatedAt(LocalDateTime.now());
+			notificationRepo.save(n);
+		}
+		emf.unwrap(SessionFactory.class).getCache().evictAllRegions();
+	}
+
+	@Test
+	void myRequests() throws Exception {
+		assertQueries(2, get("/api/borrow/my"), studentToken);
+	}
+
+	@Test
+	void pendingRequests() throws Exception {
+		assertQueries(2, get("/api/borrow/pending"), staffToken);
+	}
+
+	@Test
+	void issuedRequests() throws Exception {
+		assertQueries(2, get("/api/borrow/issued"), staffToken);
+	}
+
+	@Test
+	void equipmentList() throws Exception {
+		assertQueries(2, get("/api/equipment"), studentToken);
+	}
+
+	@Test
+	void equipmentById() throws Exception {
+		assertQueries(2, get("/api/equipment/" + equipmentId), studentToken);
+	}
+
+	@Test
+	void repeatedLookupsAreServedFromSecondLevelCache() throws Exception {
+		assertQueries(2, get("/api/equipment/" + equipmentId), studentToken);
+		// equipment by id hits the entity cache; the user is always read from the database
+		assertQueries(1, get("/api/equipment/" + equipmentId), studentToken);
+	}
+
+	@Test
+	void overdueNotifications() throws Exception {
+		assertQueries(2, get("/api/notifications/overdue"), staffToken);
+	}
+
+	@Test
+	void userList() throws Exception {
+		assertQueries(2, get("/api/users"), adminToken);
+	}
+
+	@Test
+	void loginCountsTheStatementsRunOnTheHashingPool() throws Exception {
+		MvcResult started = mvc.perform(post("/api/users/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"email\":\"student@test\",\"password\":\"pw\"}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MvcResult result = mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+		// user by email on the request thread, the refresh token insert on the hashing pool
+		assertEquals(2, result.getRequest().getAttribute(QueryBudgetFilter.QUERY_COUNT_ATTRIBUTE));
+	}
+
+	@Test
+	void longPollCountsTheFetchAfterTheWake() throws Exception {
+		MvcResult started = mvc.perform(get("/api/borrow/my/changes").param("since", changeFeed.myChanges(studentId, null).cursor()).param("wait", "10")
+						.header("Authorization", "Bearer " + studentToken))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		borrowService.createRequest(studentId, equipmentId, 1, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+		started.getAsyncResult(5000);
+		MvcResult result = mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+		// user lookup, the empty fetch, the fetch on the fetcher thread after the wake
+		assertEquals(3, result.getRequest().getAttribute(QueryBudgetFilter.QUERY_COUNT_ATTRIBUTE));
+	}
+
+	private void assertQueries(int expected, MockHttpServletRequestBuilder request, String token) throws Exception {
+		MvcResult result = mvc.perform(request.header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andReturn();
+		assertEquals(expected, result.getRequest().getAttribute(QueryBudgetFilter.QUERY_COUNT_ATTRIBUTE),
+				"SQL statements for " + result.getRequest().getRequestURI());
+	}
+
+	private static User user(String email, String role) {
+		User u = new User();
+		u.setName(role.toLowerCase());
+		u.setEmail(email);
+		u.setPassword("unused");
+		u.setRole(role);
+		return u;
+	}
+}
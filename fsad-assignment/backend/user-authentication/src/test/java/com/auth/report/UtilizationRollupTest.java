@@ -0,0 +1,143 @@
+package com.auth.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.auth.dto.UtilizationReportRow;
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.Equipment;
+import com.auth.entity.UtilizationRollup.Granularity;
+import com.auth.repository.ArchivedBorrowRequestRepository;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.NotificationRepository;
+import com.auth.repository.UtilizationRollupRepository;
+import com.auth.service.BorrowRequestService;
+
+/**
+ * Transitions and the backfill build the same rollups, and the report reads
+ * them per item and per category.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UtilizationRollupTest {
+
+	@Autowired
+	private BorrowRequestService borrowService;
+
+	@Autowired
+	private UtilizationCompactor compactor;
+
+	@Autowired
+	private UtilizationBackfill backfill;
+
+	@Autowired
+	private UtilizationReportService reports;
+
+	@Autowired
+	private UtilizationRollupRepository rollupRepo;
+
+	@Autowired
+	private BorrowRequestRepository brRepo;
+
+	@Autowired
+	private ArchivedBorrowRequestRepository archiveRepo;
+
+	@Autowired
+	private EquipmentRepository equipmentRepo;
+
+	@Autowired
+	private NotificationRepository notificationRepo;
+
+	private final LocalDate today = LocalDate.now();
+	private Long equipmentId;
+
+	@BeforeEach
+	void seed() {
+		rollupRepo.deleteAll();
+		archiveRepo.deleteAll();
+		brRepo.deleteAll();
+		notificationRepo.deleteAll();
+		equipmentRepo.deleteAll();
+
+		Equipment e = new Equipment();
+		e.setName("Telescope");
+		e.setCategory("Optics");
+		e.setTotalQuantity(5);
+		e.setAvailableQuantity(5);
+		equipmentId = equipmentRepo.save(e).getId();
+	}
+
+	@Test
+	void transitionsAreCountedAndCompactedIntoWeeks() {
+		BorrowRequest br = borrowService.createRequest(1L, equipmentId, 2, today, today.plusDays(1));
+		borrowService.approveRequest(br.getId(), 99L, "ok");
+		borrowService.issue(br.getId(), 99L);
+		borrowService.markReturned(br.getId());
+
+		// as the night after today
+		compactor.compact(today.plusDays(1));
+
+		UtilizationReportRow item = single(reports.utilization(Granularity.WEEK, false, today, today));
+		assertEquals(equipmentId, item.equipmentId());
+		assertEquals(2, item.daysOnLoan());
+		assertEquals(2, item.peakConcurrent());
+		assertEquals(1, item.loansStarted());
+		assertEquals(1.0, item.averageLoanDays());
+		assertEquals(0.0, item.overdueRate());
+
+		UtilizationReportRow category = single(reports.utilization(Granularity.WEEK, true, today, today));
+		assertEquals("Optics", category.category());
+		assertEquals(2, category.daysOnLoan());
+	}
+
+	@Test
+	void backfillRebuildsHistoryFromLiveAndOpenLoans() {
+		loan(1, today.minusDays(10), BorrowStatus.RETURNED, today.minusDays(6), true);
+		loan(2, today.minusDays(3), BorrowStatus.ISSUED, null, false);
+
+		backfill.run();
+
+		List<UtilizationReportRow> months = reports.utilization(Granularity.MONTH, false, today.minusDays(40), today);
+		// 5 days x 1 unit returned, 3 days x 2 units still out up to yesterday
+		assertEquals(11, months.stream().mapToLong(UtilizationReportRow::daysOnLoan).sum());
+		assertEquals(2, months.stream().mapToInt(UtilizationReportRow::peakConcurrent).max().orElse(0));
+		assertEquals(1, months.stream().mapToInt(UtilizationReportRow::loansReturned).sum());
+		UtilizationReportRow returnMonth = months.stream().filter(r -> r.loansReturned() == 1).findFirst().orElseThrow();
+		assertEquals(5.0, returnMonth.averageLoanDays());
+		assertEquals(1.0, returnMonth.overdueRate());
+	}
+
+	private void loan(int qty, LocalDate start, BorrowStatus status, LocalDate updated, boolean overdue) {
+		BorrowRequest br = new BorrowRequest();
+		br.setUserId(1L);
+		br.setEquipment(equipmentRepo.findById(equipmentId).orElseThrow());
+		br.setQuantityRequested(qty);
+		br.setStartDate(start);
+		br.setEndDate(start.plusDays(2));
+		br.setStatus(status);
+		br.setOverdue(overdue);
+		if (updated != null) {
+			br.setUpdatedAt(updated.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant());
+		} else {
+			br.setUpdatedAt(Instant.now());
+		}
+		brRepo.save(br);
+	}
+
+	private static UtilizationReportRow single(List<UtilizationReportRow> rows) {
+		assertEquals(1, rows.size());
+		return rows.get(0);
+	}
+}
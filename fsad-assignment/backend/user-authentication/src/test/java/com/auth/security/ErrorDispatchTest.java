@@ -0,0 +1,36 @@
+package com.auth.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Errors on public endpoints reach anonymous clients with their own status
+ * (a full hashing pool's 503, a bad body's 400), not a 403 from the error
+ * page's dispatch. Needs a real server: MockMvc does not dispatch to /error.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ErrorDispatchTest {
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	void anonymousErrorsKeepTheirStatus() throws Exception {
+		HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/login"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{"))
+				.build();
+		HttpResponse<String> res = HttpClient.newHttpClient().send(login, HttpResponse.BodyHandlers.ofString());
+		assertEquals(400, res.statusCode());
+	}
+}
@@ -0,0 +1,40 @@
+package com.auth.security;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** The scrape endpoint answers the scraper's credential only, not anonymous clients. */
+@SpringBootTest(properties = "monitoring.prometheus.scrape-password=s3cret")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class PrometheusScrapeAccessTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void scrapeNeedsTheConfiguredCredential() throws Exception {
+		mvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+		mvc.perform(get("/actuator/prometheus").header("Authorization", basic("prometheus", "wrong")))
+				.andExpect(status().isForbidden());
+		mvc.perform(get("/actuator/prometheus").header("Authorization", basic("prometheus", "s3cret")))
+				.andExpect(status().isOk());
+		mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+	}
+
+	private static String basic(String user, String password) {
+		return "Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+	}
+}
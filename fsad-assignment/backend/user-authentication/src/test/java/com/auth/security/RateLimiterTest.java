@@ -0,0 +1,55 @@
+package com.auth.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+	private final AtomicLong now = new AtomicLong();
+	private final RateLimiter.Limit limit = new RateLimiter.Limit("test", 1, 3);
+
+	@Test
+	void admitsBurstThenThrottlesUntilRefill() {
+		RateLimiter limiter = new RateLimiter(10, now::get);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, limiter.tryAcquire(limit, "a"));
+		}
+		long wait = limiter.tryAcquire(limit, "a");
+		assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+
+		now.addAndGet(wait);
+		assertEquals(0, limiter.tryAcquire(limit, "a"));
+	}
+
+	@Test
+	void keysAreIndependent() {
+		RateLimiter limiter = new RateLimiter(10, now::get);
+
+		for (int i = 0; i < 3; i++) {
+			limiter.tryAcquire(limit, "a");
+		}
+		assertTrue(limiter.tryAcquire(limit, "a") > 0);
+		assertEquals(0, limiter.tryAcquire(limit, "b"));
+	}
+
+	@Test
+	void refilledBucketsAreEvictedAndMapStaysBounded() {
+		RateLimiter limiter = new RateLimiter(2, now::get);
+
+		limiter.tryAcquire(limit, "a");
+		limiter.tryAcquire(limit, "b");
+		// map is full, a third key falls back to the shared overflow bucket
+		limiter.tryAcquire(limit, "c");
+		assertEquals(2, limiter.size());
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+		limiter.evictExpired();
+		assertEquals(0, limiter.size());
+	}
+}
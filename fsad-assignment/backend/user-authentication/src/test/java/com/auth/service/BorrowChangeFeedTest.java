@@ -0,0 +1,145 @@
+package com.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.auth.dto.ChangeFeed;
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.Equipment;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.NotificationRepository;
+
+/**
+ * A client holding a cursor gets only the rows written after it, and a
+ * long-poll parked on an empty feed is answered by the next change.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BorrowChangeFeedTest {
+
+	private static final Long STUDENT = 1L;
+	private static final Long OTHER_STUDENT = 2L;
+
+	@Autowired
+	private BorrowRequestService borrowService;
+
+	@Autowired
+	private BorrowChangeFeedService changeFeed;
+
+	@Autowired
+	private ChangeFeedLongPoll longPoll;
+
+	@Autowired
+	private BorrowRequestRepository brRepo;
+
+	@Autowired
+	private EquipmentRepository equipmentRepo;
+
+	@Autowired
+	private NotificationRepository notificationRepo;
+
+	private Long equipmentId;
+
+	@BeforeEach
+	void seed() {
+		brRepo.deleteAll();
+		notificationRepo.deleteAll();
+		equipmentRepo.deleteAll();
+
+		Equipment e = new Equipment();
+		e.setName("Microscope");
+		e.setTotalQuantity(10);
+		e.setAvailableQuantity(10);
+		equipmentId = equipmentRepo.save(e).getId();
+	}
+
+	@Test
+	void returnsOnlyRowsChangedAfterTheCursor() {
+		BorrowRequest first = request(STUDENT);
+		request(STUDENT);
+		request(OTHER_STUDENT);
+
+		ChangeFeed initial = changeFeed.myChanges(STUDENT, null);
+		assertEquals(2, initial.items().size());
+
+		borrowService.approveRequest(first.getId(), 99L, "ok");
+		ChangeFeed delta = changeFeed.myChanges(STUDENT, initial.cursor());
+		assertEquals(List.of(first.getId()), delta.items().stream().map(BorrowRequest::getId).toList());
+		assertEquals(BorrowStatus.APPROVED, delta.items().get(0).getStatus());
+
+		assertTrue(changeFeed.myChanges(STUDENT, delta.cursor()).items().isEmpty());
+	}
+
+	@Test
+	void staffQueueDeltaIncludesRowsThatLeftTheQueue() {
+		BorrowRequest br = request(STUDENT);
+		ChangeFeed queue = changeFeed.queueChanges(List.of(BorrowStatus.PENDING), null);
+		assertEquals(1, queue.items().size());
+
+		borrowService.reject(br.getId(), "no");
+		ChangeFeed delta = changeFeed.queueChanges(List.of(BorrowStatus.PENDING), queue.cursor());
+		assertEquals(BorrowStatus.REJECTED, delta.items().get(0).getStatus());
+	}
+
+	@Test
+	void longPollIsAnsweredByTheNextChange() throws Exception {
+		BorrowRequest br = request(STUDENT);
+		String cursor = changeFeed.myChanges(STUDENT, null).cursor();
+		String otherCursor = changeFeed.myChanges(OTHER_STUDENT, null).cursor();
+
+		DeferredResult<ChangeFeed> waiting = longPoll.await(STUDENT, 10, () -> changeFeed.myChanges(STUDENT, cursor));
+		DeferredResult<ChangeFeed> otherUser = longPoll.await(OTHER_STUDENT, 10,
+				() -> changeFeed.myChanges(OTHER_STUDENT, otherCursor));
+		assertFalse(waiting.hasResult());
+
+		borrowService.approveRequest(br.getId(), 99L, "ok");
+		for (int i = 0; i < 200 && !waiting.hasResult(); i++) {
+			Thread.sleep(10);
+		}
+		ChangeFeed feed = (ChangeFeed) waiting.getResult();
+		assertEquals(1, feed.items().size());
+		assertFalse(otherUser.hasResult());
+	}
+
+	@Test
+	void fetchAfterAWakeReadsThePrimary() throws Exception {
+		BorrowRequest br = request(STUDENT);
+		String cursor = changeFeed.myChanges(STUDENT, null).cursor();
+		AtomicBoolean readWrite = new AtomicBoolean();
+
+		// read-only transactions are the ones routed to the replica
+		DeferredResult<ChangeFeed> waiting = longPoll.await(STUDENT, 10, () -> {
+			readWrite.set(TransactionSynchronizationManager.isActualTransactionActive()
+					&& !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+			return changeFeed.myChanges(STUDENT, cursor);
+		});
+		assertFalse(readWrite.get());
+
+		borrowService.approveRequest(br.getId(), 99L, "ok");
+		for (int i = 0; i < 200 && !waiting.hasResult(); i++) {
+			Thread.sleep(10);
+		}
+		assertTrue(waiting.hasResult());
+		assertTrue(readWrite.get());
+	}
+
+	private BorrowRequest request(Long userId) {
+		return borrowService.createRequest(userId, equipmentId, 1,
+				LocalDate.now().plusDays(1), LocalDate.now().plusDays(3));
+	}
+}
@@ -0,0 +1,107 @@
+package com.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.auth.dto.BorrowRequestDto;
+import com.auth.dto.KitRequestDetails;
+import com.auth.dto.KitRequestDto;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.Equipment;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.KitRequestRepository;
+import com.auth.repository.NotificationRepository;
+
+/**
+ * A kit is approved and issued for all of its lines or for none of them.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class KitRequestServiceTest {
+
+	@Autowired
+	private KitRequestService kits;
+
+	@Autowired
+	private KitRequestRepository kitRepo;
+
+	@Autowired
+	private BorrowRequestRepository brRepo;
+
+	@Autowired
+	private EquipmentRepository equipmentRepo;
+
+	@Autowired
+	private NotificationRepository notificationRepo;
+
+	private Long scopes;
+	private Long probes;
+
+	@BeforeEach
+	void seed() {
+		brRepo.deleteAll();
+		kitRepo.deleteAll();
+		notificationRepo.deleteAll();
+		equipmentRepo.deleteAll();
+		scopes = equipment("Oscilloscope", 5);
+		probes = equipment("Probe", 2);
+	}
+
+	@Test
+	void oneShortLineFailsTheWholeKit() {
+		KitRequestDetails kit = kits.create(1L, kit(line(scopes, 3), line(probes, 4)));
+
+		IllegalStateException e = assertThrows(IllegalStateException.class,
+				() -> kits.approve(kit.kit().getId(), 99L, "ok"));
+		assertTrue(e.getMessage().contains("Probe"));
+		assertTrue(kits.get(kit.kit().getId()).lines().stream().allMatch(l -> l.getStatus() == BorrowStatus.PENDING));
+	}
+
+	@Test
+	void approvesAndIssuesEveryLine() {
+		KitRequestDetails kit = kits.create(1L, kit(line(scopes, 3), line(probes, 1), line(scopes, 1)));
+		assertEquals(2, kit.lines().size()); // repeated items are merged
+
+		kits.approve(kit.kit().getId(), 99L, "ok");
+		KitRequestDetails issued = kits.issue(kit.kit().getId(), 99L);
+
+		assertEquals(BorrowStatus.ISSUED, issued.kit().getStatus());
+		assertTrue(issued.lines().stream().allMatch(l -> l.getStatus() == BorrowStatus.ISSUED));
+		assertEquals(1, equipmentRepo.findById(scopes).orElseThrow().getAvailableQuantity());
+		assertEquals(1, equipmentRepo.findById(probes).orElseThrow().getAvailableQuantity());
+	}
+
+	private Long equipment(String name, int qty) {
+		Equipment e = new Equipment();
+		e.setName(name);
+		e.setTotalQuantity(qty);
+		e.setAvailableQuantity(qty);
+		return equipmentRepo.save(e).getId();
+	}
+
+	private static KitRequestDto kit(BorrowRequestDto... lines) {
+		KitRequestDto dto = new KitRequestDto();
+		dto.setStartDate(LocalDate.now().plusDays(1));
+		dto.setEndDate(LocalDate.now().plusDays(2));
+		dto.setLines(List.of(lines));
+		return dto;
+	}
+
+	private static BorrowRequestDto line(Long equipmentId, int qty) {
+		BorrowRequestDto dto = new BorrowRequestDto();
+		dto.setEquipmentId(equipmentId);
+		dto.setQuantity(qty);
+		return dto;
+	}
+}
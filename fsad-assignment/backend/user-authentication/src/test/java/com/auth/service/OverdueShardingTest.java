@@ -0,0 +1,87 @@
+package com.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.auth.cluster.Shard;
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.Equipment;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.NotificationRepository;
+
+/**
+ * Several nodes scanning their own shards, or overlapping ones while
+ * membership changes, must flag every overdue loan exactly once.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OverdueShardingTest {
+
+	private static final int LOANS = 7;
+
+	@Autowired
+	private OverdueCheckService overdueCheck;
+
+	@Autowired
+	private BorrowRequestRepository brRepo;
+
+	@Autowired
+	private EquipmentRepository equipmentRepo;
+
+	@Autowired
+	private NotificationRepository notificationRepo;
+
+	@BeforeEach
+	void seed() {
+		brRepo.deleteAll();
+		notificationRepo.deleteAll();
+		equipmentRepo.deleteAll();
+
+		Equipment e = new Equipment();
+		e.setName("Camera");
+		e.setTotalQuantity(LOANS);
+		e.setAvailableQuantity(0);
+		e = equipmentRepo.save(e);
+		for (int i = 0; i < LOANS; i++) {
+			BorrowRequest br = new BorrowRequest();
+			br.setUserId(1L);
+			br.setEquipment(e);
+			br.setQuantityRequested(1);
+			br.setStartDate(LocalDate.now().minusDays(10));
+			br.setEndDate(LocalDate.now().minusDays(1));
+			br.setStatus(BorrowStatus.ISSUED);
+			brRepo.save(br);
+		}
+	}
+
+	@Test
+	void shardsPartitionTheWork() {
+		int flagged = 0;
+		for (int i = 0; i < 3; i++) {
+			flagged += overdueCheck.checkOverdues(new Shard(i, 3));
+		}
+		assertEquals(LOANS, flagged);
+		assertEquals(LOANS, notificationRepo.count());
+		assertTrue(brRepo.findAll().stream().allMatch(BorrowRequest::getOverDue));
+	}
+
+	@Test
+	void overlappingRunsDoNotDuplicateNotifications() {
+		// node A still thinks it is alone while node B already sees two nodes
+		overdueCheck.checkOverdues(new Shard(1, 2));
+		overdueCheck.checkOverdues(Shard.ALL);
+		overdueCheck.checkAllOverdues();
+
+		assertEquals(LOANS, notificationRepo.count());
+	}
+}
@@ -0,0 +1,120 @@
+package com.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		SingleFlight<Long, String> flight = flight(Duration.ZERO);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<String>> results = new ArrayList<>();
+		try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 50; i++) {
+				results.add(pool.submit(() -> flight.get(1L, () -> {
+					loads.incrementAndGet();
+					await(release);
+					return "kit";
+				})));
+			}
+			// one caller is loading and the other 49 are waiting on it before it returns
+			while (flight.waiting() < 49) {
+				Thread.sleep(5);
+			}
+			release.countDown();
+			for (Future<String> f : results) {
+				assertEquals("kit", f.get(5, TimeUnit.SECONDS));
+			}
+		}
+		assertEquals(1, loads.get());
+		assertEquals(49.0, registry.get("singleflight.calls").tag("outcome", "shared").counter().count());
+		assertEquals(0.98, registry.get("singleflight.collapse.ratio").gauge().value(), 0.001);
+	}
+
+	@Test
+	void resultIsReusedUntilInvalidated() {
+		SingleFlight<Long, String> flight = flight(Duration.ofMinutes(1));
+		AtomicInteger loads = new AtomicInteger();
+
+		flight.get(1L, () -> "v" + loads.incrementAndGet());
+		assertEquals("v1", flight.get(1L, () -> "v" + loads.incrementAndGet()));
+
+		flight.invalidate(1L);
+		assertEquals("v2", flight.get(1L, () -> "v" + loads.incrementAndGet()));
+	}
+
+	@Test
+	void failuresAreNotCached() {
+		SingleFlight<Long, String> flight = flight(Duration.ofMinutes(1));
+
+		assertThrows(IllegalStateException.class, () -> flight.get(1L, () -> {
+			throw new IllegalStateException("db down");
+		}));
+		assertEquals("ok", flight.get(1L, () -> "ok"));
+	}
+
+	@Test
+	void waiterRetriesWhenLeaderIsCancelled() throws Exception {
+		SingleFlight<Long, String> flight = flight(Duration.ZERO);
+		CountDownLatch leaderStarted = new CountDownLatch(1);
+
+		Thread leader = Thread.ofVirtual().start(() -> {
+			try {
+				flight.get(1L, () -> {
+					leaderStarted.countDown();
+					try {
+						Thread.sleep(10_000);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new IllegalStateException("query cancelled");
+					}
+					return "never";
+				});
+			} catch (IllegalStateException expected) {
+				// the cancelled leader sees its own failure
+			}
+		});
+		leaderStarted.await();
+
+		try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<String> waiter = pool.submit(() -> flight.get(1L, () -> "fresh"));
+			while (flight.waiting() == 0) {
+				Thread.sleep(5);
+			}
+			leader.interrupt();
+			assertEquals("fresh", waiter.get(5, TimeUnit.SECONDS));
+		}
+	}
+
+	private SingleFlight<Long, String> flight(Duration ttl) {
+		return new SingleFlight<>("test", ttl, Duration.ofSeconds(5), 100, registry);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.auth.tenant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.auth.entity.Equipment;
+import com.auth.entity.User;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.UserRepository;
+import com.auth.service.EquipmentService;
+
+/**
+ * Rows written for one tenant are invisible to every other tenant, by query
+ * and by id, while a background job's root scope sees them all. Tenants
+ * that are not configured do not exist.
+ */
+@SpringBootTest(properties = "app.tenants.known=north,south")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TenantIsolationTest {
+
+	private static final TenantContext.Scope NORTH = new TenantContext.Scope("north", TenantContext.SHARED_DATABASE);
+	private static final TenantContext.Scope SOUTH = new TenantContext.Scope("south", TenantContext.SHARED_DATABASE);
+	private static final TenantContext.Scope ROOT = new TenantContext.Scope(null, TenantContext.SHARED_DATABASE);
+
+	@Autowired
+	private EquipmentRepository equipmentRepo;
+
+	@Autowired
+	private EquipmentService equipmentService;
+
+	@Autowired
+	private UserRepository userRepo;
+
+	@Autowired
+	private BorrowRequestRepository brRepo;
+
+	@Autowired
+	private MockMvc mvc;
+
+	// other tests share the database and work in the default tenant
+	@AfterEach
+	void clean() {
+		for (TenantContext.Scope scope : List.of(NORTH, SOUTH)) {
+			TenantContext.run(scope, () -> {
+				brRepo.deleteAll();
+				equipmentRepo.deleteAll();
+				userRepo.deleteAll();
+			});
+		}
+	}
+
+	@Test
+	void tenantsOnlySeeTheirOwnEquipment() {
+		Long northId = TenantContext.call(NORTH, () -> equipmentRepo.save(equipment("Centrifuge")).getId());
+		TenantContext.run(SOUTH, () -> equipmentRepo.save(equipment("Spectrometer")));
+
+		List<String> south = TenantContext.call(SOUTH,
+				() -> equipmentRepo.findAll().stream().map(Equipment::getName).toList());
+		assertEquals(List.of("Spectrometer"), south);
+		assertFalse(TenantContext.call(SOUTH, () -> equipmentRepo.findById(northId)).isPresent());
+		assertFalse(TenantContext.call(SOUTH, () -> equipmentService.getById(northId)).isPresent());
+		assertTrue(TenantContext.call(NORTH, () -> equipmentService.getById(northId)).isPresent());
+
+		assertEquals("north", TenantContext.call(NORTH, () -> equipmentRepo.findById(northId)).get().getTenantId());
+		List<String> all = TenantContext.call(ROOT,
+				() -> equipmentRepo.findAll().stream().map(Equipment::getName).toList());
+		assertTrue(all.containsAll(List.of("Centrifuge", "Spectrometer")));
+	}
+
+	@Test
+	void sameEmailCanSignUpInTwoTenants() {
+		TenantContext.run(NORTH, () -> userRepo.save(user("Asha", "asha@campus.test")));
+		TenantContext.run(SOUTH, () -> userRepo.save(user("Asha K", "asha@campus.test")));
+
+		assertEquals("Asha", TenantContext.call(NORTH, () -> userRepo.findByEmail("asha@campus.test")).get().getName());
+		assertEquals("Asha K", TenantContext.call(SOUTH, () -> userRepo.findByEmail("asha@campus.test")).get().getName());
+		assertFalse(userRepo.existsByEmail("asha@campus.test")); // default tenant
+	}
+
+	@Test
+	void unknownTenantsAreRefused() throws Exception {
+		mvc.perform(get("/api/equipment").header("X-Tenant-ID", "nowhere")).andExpect(status().isNotFound());
+		// a configured tenant gets as far as authentication
+		assertNotEquals(404, mvc.perform(get("/api/equipment").header("X-Tenant-ID", "north"))
+				.andReturn().getResponse().getStatus());
+	}
+
+	private static Equipment equipment(String name) {
+		Equipment e = new Equipment();
+		e.setName(name);
+		e.setTotalQuantity(1);
+		e.setAvailableQuantity(1);
+		return e;
+	}
+
+	private static User user(String name, String email) {
+		User u = new User();
+		u.setName(name);
+		u.setEmail(email);
+		u.setPassword("x");
+		u.setRole("STUDENT");
+		return u;
+	}
+}
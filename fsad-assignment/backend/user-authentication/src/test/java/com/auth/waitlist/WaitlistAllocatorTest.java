@@ -0,0 +1,113 @@
+package com.auth.waitlist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auth.entity.BorrowRequest;
+import com.auth.entity.BorrowStatus;
+import com.auth.entity.Equipment;
+import com.auth.repository.BorrowRequestRepository;
+import com.auth.repository.EquipmentRepository;
+import com.auth.repository.NotificationRepository;
+import com.auth.service.BorrowRequestService;
+
+/**
+ * Freed capacity goes to waiting requests in order, skipping ones that
+ * still do not fit, without anyone retrying approvals by hand.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WaitlistAllocatorTest {
+
+	@Autowired
+	private BorrowRequestService borrowService;
+
+	@Autowired
+	private BorrowRequestRepository brRepo;
+
+	@Autowired
+	private EquipmentRepository equipmentRepo;
+
+	@Autowired
+	private NotificationRepository notificationRepo;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Long equipmentId;
+
+	@BeforeEach
+	void seed() {
+		brRepo.deleteAll();
+		notificationRepo.deleteAll();
+		equipmentRepo.deleteAll();
+
+		Equipment e = new Equipment();
+		e.setName("Oscilloscope");
+		e.setTotalQuantity(2);
+		e.setAvailableQuantity(2);
+		equipmentId = equipmentRepo.save(e).getId();
+	}
+
+	@Test
+	void releasedCapacityApprovesTheNextRequestsThatFit() throws Exception {
+		BorrowRequest holder = request(2);
+		borrowService.approveRequest(holder.getId(), 99L, "ok");
+		BorrowRequest first = request(1);
+		BorrowRequest tooBig = request(2);
+		BorrowRequest last = request(1);
+
+		borrowService.reject(holder.getId(), "cancelled practical");
+
+		for (int i = 0; i < 200 && status(last) == BorrowStatus.PENDING; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(List.of(BorrowStatus.APPROVED, BorrowStatus.PENDING, BorrowStatus.APPROVED),
+				List.of(status(first), status(tooBig), status(last)));
+	}
+
+	@Test
+	void batchWaitsForARejectionInProgress() throws Exception {
+		BorrowRequest candidate = request(1);
+
+		CompletableFuture<BorrowRequestService.Allocation> batch = transactionTemplate.execute(status -> {
+			borrowService.reject(candidate.getId(), "withdrawn");
+			CompletableFuture<BorrowRequestService.Allocation> started = CompletableFuture.supplyAsync(
+					() -> borrowService.approveFromWaitlist(equipmentId, List.of(candidate.getId())));
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			assertFalse(started.isDone()); // blocked on the item lock until the rejection commits
+			return started;
+		});
+
+		BorrowRequestService.Allocation allocation = batch.get(5, TimeUnit.SECONDS);
+		assertTrue(allocation.approved().isEmpty());
+		assertEquals(List.of(candidate.getId()), allocation.notPending());
+		assertEquals(BorrowStatus.REJECTED, status(candidate));
+	}
+
+	private BorrowRequest request(int qty) {
+		return borrowService.createRequest(1L, equipmentId, qty,
+				LocalDate.now().plusDays(1), LocalDate.now().plusDays(3));
+	}
+
+	private BorrowStatus status(BorrowRequest br) {
+		return brRepo.findById(br.getId()).orElseThrow().getStatus();
+	}
+}
@@ -1,6 +1,6 @@
 import React, { useState } from "react";
 import api from "../utils/api";
-import { saveToken } from "../utils/auth";
+import { saveTokens } from "../utils/auth";
 import { jwtDecode } from "jwt-decode";
 import { useNavigate, Link } from 'react-router-dom';
 import {
@@ -33,7 +33,7 @@ const Login = () => {
         try {
             const res = await api.post("/users/login", { email, password });
             const token = res.data.token;
-            saveToken(token);
+            saveTokens(res.data);
             const decoded = jwtDecode(token);
             const role = decoded.role;
 
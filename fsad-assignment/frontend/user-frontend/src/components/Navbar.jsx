@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from "react"; 
 import { Link, useNavigate, useLocation } from "react-router-dom";
-import { getUserDetails, logout } from "../utils/auth";
+import { getRefreshToken, getUserDetails, logout } from "../utils/auth";
 import api from "../utils/api"; 
 import {
     AppBar,
@@ -56,6 +56,9 @@ const Navbar = () => {
     };
 
     const handleLogout = () => {
+        // revoke the refresh token server-side; local logout does not wait for it
+        const refreshToken = getRefreshToken();
+        if (refreshToken) api.post("/users/logout", { refreshToken }).catch(() => {});
         logout();
         navigate("/login");
     };
@@ -1,7 +1,7 @@
 import React, { useState } from "react";
 import { useNavigate } from "react-router-dom";
 import api from "../utils/api";
-import { saveToken } from "../utils/auth";
+import { saveTokens } from "../utils/auth";
 import {
     Avatar,
     Button,
@@ -37,7 +37,7 @@ const Signup = () => {
 
         try {
             const res = await api.post("/users/signup", { name, email, password, role });
-            saveToken(res.data.token);
+            saveTokens(res.data);
             setMessage("Signup successful!");
             setTimeout(() => navigate("/admin"), 800); // redirect to landing page
         } catch (err) {
@@ -1,7 +1,10 @@
 import axios from "axios";
+import { getRefreshToken, logout, saveTokens } from "./auth";
+
+const BASE_URL = "http://localhost:8080/api"; // backend base URL
 
 const api = axios.create({
-    baseURL: "http://localhost:8080/api", // backend base URL
+    baseURL: BASE_URL,
 });
 
 // Automatically add token to headers
@@ -13,4 +16,32 @@ api.interceptors.request.use((config) => {
     return config;
 });
 
+// Access tokens are short-lived: on 401/403 swap the refresh token for a new
+// pair and retry once, instead of sending the user back to the login page.
+let refreshing = null;
+api.interceptors.response.use(
+    (response) => response,
+    async (error) => {
+        const original = error.config;
+        const status = error.response?.status;
+        const refreshToken = getRefreshToken();
+        if ((status === 401 || status === 403) && refreshToken && original
+                && !original._retried && !original.url.startsWith("/users/")) {
+            original._retried = true;
+            // concurrent failures share a single refresh call
+            refreshing = refreshing || axios.post(`${BASE_URL}/users/refresh`, { refreshToken })
+                .then((res) => saveTokens(res.data))
+                .finally(() => { refreshing = null; });
+            try {
+                await refreshing;
+            } catch (refreshError) {
+                logout();
+                return Promise.reject(error);
+            }
+            return api(original);
+        }
+        return Promise.reject(error);
+    }
+);
+
 export default api;
@@ -2,7 +2,18 @@ import { jwtDecode } from "jwt-decode";
 
 export const saveToken = (token) => localStorage.setItem("token", token);
 export const getToken = () => localStorage.getItem("token");
-export const logout = () => localStorage.removeItem("token");
+export const getRefreshToken = () => localStorage.getItem("refreshToken");
+
+// login, signup and refresh all answer with { token, refreshToken }
+export const saveTokens = ({ token, refreshToken }) => {
+    saveToken(token);
+    if (refreshToken) localStorage.setItem("refreshToken", refreshToken);
+};
+
+export const logout = () => {
+    localStorage.removeItem("token");
+    localStorage.removeItem("refreshToken");
+};
 
 export const getUserDetails = () => {
     const token = getToken();